@@ -0,0 +1,45 @@
+package nl.kabisa.spring.boot.starter.database.test;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * This configuration class migrates the H2 test database once per JVM and starts every next Spring context from a
+ * snapshot of the migrated database, see {@link FlywaySnapshotMigrationStrategy}. It is only available with the
+ * database-spring-boot-starter-test dependency, a migration strategy of the service or the deferred migration of the
+ * database starter takes precedence.
+ * <p>
+ * You can disable this configuration with:
+ * <p>
+ * service.starter.database.snapshot.enabled=false
+ */
+@Data
+@AutoConfiguration(before = FlywayAutoConfiguration.class,
+        afterName = "nl.kabisa.spring.boot.starter.database.flyway.DeferredFlywayAutoConfiguration")
+@ConfigurationProperties("service.starter.database.snapshot")
+@ConditionalOnClass({Flyway.class, FlywayMigrationStrategy.class})
+@ConditionalOnProperty(prefix = "service.starter.database.snapshot", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+class FlywaySnapshotAutoConfiguration {
+
+    /**
+     * Is the snapshot of the migrated test database enabled? (default is true)
+     */
+    private boolean enabled = true;
+
+    @Bean
+    @ConditionalOnMissingBean(FlywayMigrationStrategy.class)
+    FlywaySnapshotMigrationStrategy flywaySnapshotMigrationStrategy() {
+        log.debug("Configuring Flyway snapshot migration strategy");
+        return new FlywaySnapshotMigrationStrategy();
+    }
+}
@@ -0,0 +1,112 @@
+package nl.kabisa.spring.boot.starter.database.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Migrates an empty H2 database once per JVM and restores a snapshot of the migrated database in every next Spring
+ * context that migrates the same scripts. The migration is replaced by a single RUNSCRIPT of the H2 SCRIPT taken after
+ * the first migration, the schema history in the snapshot is the same as after a migration.
+ * <p>
+ * The snapshot key holds the locations, schemas, default schema, schema history table, target, placeholders, callbacks
+ * and the version, script and checksum of every migration, a changed script or setting creates a new snapshot. Other databases, and databases that already have applied migrations, are
+ * migrated as usual.
+ */
+@Slf4j
+public class FlywaySnapshotMigrationStrategy implements FlywayMigrationStrategy {
+
+    private static final Map<String, Path> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    @Override
+    public void migrate(Flyway flyway) {
+        DataSource dataSource = flyway.getConfiguration().getDataSource();
+        if (!isH2(dataSource)) {
+            flyway.migrate();
+            return;
+        }
+        MigrationInfoService info = flyway.info();
+        if (info.applied().length > 0) {
+            // a database shared by contexts, only pending migrations are applied
+            flyway.migrate();
+            return;
+        }
+
+        String key = key(flyway.getConfiguration(), info.all());
+        Path snapshot = SNAPSHOTS.get(key);
+        if (snapshot == null) {
+            synchronized (SNAPSHOTS) {
+                snapshot = SNAPSHOTS.get(key);
+                if (snapshot == null) {
+                    flyway.migrate();
+                    SNAPSHOTS.put(key, snapshot(dataSource));
+                    return;
+                }
+            }
+        }
+        log.debug("Restoring the migrated database from snapshot {}", snapshot);
+        execute(dataSource, "RUNSCRIPT FROM " + literal(snapshot));
+    }
+
+    static String key(Configuration configuration, MigrationInfo[] migrations) {
+        return Arrays.stream(configuration.getLocations()).map(Object::toString).collect(Collectors.joining(",", "locations=", ";"))
+                + String.join(",", configuration.getSchemas()) + ";"
+                + configuration.getDefaultSchema() + ";"
+                + configuration.getTable() + ";"
+                + configuration.getTarget() + ";"
+                // the placeholders are replaced in the scripts after the checksum is computed
+                + configuration.isPlaceholderReplacement() + ":" + new TreeMap<>(configuration.getPlaceholders()) + ";"
+                + Arrays.stream(configuration.getCallbacks()).map(c -> c.getClass().getName()).collect(Collectors.joining(","))
+                + ":" + configuration.isSkipDefaultCallbacks() + ";"
+                + Arrays.stream(migrations).map(m -> m.getVersion() + ":" + m.getScript() + ":" + m.getChecksum()).collect(Collectors.joining(","));
+    }
+
+    private static Path snapshot(DataSource dataSource) {
+        try {
+            Path snapshot = Files.createTempFile("flyway-snapshot-", ".sql");
+            snapshot.toFile().deleteOnExit();
+            execute(dataSource, "SCRIPT TO " + literal(snapshot));
+            log.info("Created a snapshot of the migrated database: {}", snapshot);
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the database snapshot", e);
+        }
+    }
+
+    private static boolean isH2(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "H2".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not determine the database", e);
+        }
+    }
+
+    private static void execute(DataSource dataSource, String sql) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not execute: " + sql, e);
+        }
+    }
+
+    private static String literal(Path path) {
+        return "'" + path.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,104 @@
+package nl.kabisa.spring.boot.starter.database.test;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Test to check that the next Spring contexts start from the snapshot of the database migrated by the first context.
+ */
+class FlywaySnapshotMigrationStrategyTest {
+
+	@Test
+	void testSnapshotRestored() {
+		try (ConfigurableApplicationContext first = context(); ConfigurableApplicationContext second = context()) {
+			assertInstanceOf(FlywaySnapshotMigrationStrategy.class, first.getBean(FlywayMigrationStrategy.class));
+			JdbcTemplate firstJdbc = first.getBean(JdbcTemplate.class);
+			JdbcTemplate secondJdbc = second.getBean(JdbcTemplate.class);
+
+			// separate databases with the same schema history, the second one is not migrated again
+			firstJdbc.update("INSERT INTO QUOTE (ID, TEXT, AUTHOR) VALUES (2, 'first', 'first')");
+			assertEquals(2, firstJdbc.queryForObject("SELECT COUNT(*) FROM QUOTE", Integer.class));
+			assertEquals(1, secondJdbc.queryForObject("SELECT COUNT(*) FROM QUOTE", Integer.class));
+			assertEquals(installedOn(firstJdbc), installedOn(secondJdbc));
+			assertEquals(100L, secondJdbc.queryForObject("SELECT NEXT VALUE FOR quote_sequence", Long.class));
+		}
+	}
+
+	@Test
+	void testDisabled() {
+		try (ConfigurableApplicationContext context = context("service.starter.database.snapshot.enabled=false")) {
+			assertFalse(context.getBeanProvider(FlywayMigrationStrategy.class).stream().findAny().isPresent());
+			assertEquals(1, context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM QUOTE", Integer.class));
+		}
+	}
+
+	@Test
+	void testKey() {
+		try (ConfigurableApplicationContext context = context()) {
+			Flyway flyway = context.getBean(Flyway.class);
+			String key = FlywaySnapshotMigrationStrategy.key(flyway.getConfiguration(), flyway.info().all());
+			Flyway other = Flyway.configure().configuration(flyway.getConfiguration())
+					.locations("classpath:db/migration", "classpath:db/other").load();
+			assertNotEquals(key, FlywaySnapshotMigrationStrategy.key(other.getConfiguration(), other.info().all()));
+
+			// settings that change the migrated database without changing the checksums
+			assertNotEquals(key, key(Flyway.configure().configuration(flyway.getConfiguration()).placeholders(Map.of("owner", "other"))));
+			assertNotEquals(key, key(Flyway.configure().configuration(flyway.getConfiguration()).defaultSchema("OTHER")));
+			assertNotEquals(key, key(Flyway.configure().configuration(flyway.getConfiguration()).table("other_history")));
+			assertNotEquals(key, key(Flyway.configure().configuration(flyway.getConfiguration()).callbacks(new NoOpCallback())));
+			assertEquals(key, key(Flyway.configure().configuration(flyway.getConfiguration())));
+		}
+	}
+
+	private static String key(FluentConfiguration configuration) {
+		return FlywaySnapshotMigrationStrategy.key(configuration, configuration.load().info().all());
+	}
+
+	private static List<Timestamp> installedOn(JdbcTemplate jdbcTemplate) {
+		return jdbcTemplate.queryForList("SELECT \"installed_on\" FROM \"flyway_schema_history\" ORDER BY \"installed_rank\"", Timestamp.class);
+	}
+
+	private static ConfigurableApplicationContext context(String... properties) {
+		return new SpringApplicationBuilder(Application.class).web(WebApplicationType.NONE).properties(properties).run();
+	}
+
+	static class NoOpCallback implements Callback {
+
+		@Override
+		public boolean supports(Event event, Context context) {
+			return false;
+		}
+
+		@Override
+		public boolean canHandleInTransaction(Event event, Context context) {
+			return true;
+		}
+
+		@Override
+		public void handle(Event event, Context context) {
+		}
+
+		@Override
+		public String getCallbackName() {
+			return "noOp";
+		}
+	}
+}
@@ -0,0 +1,10 @@
+CREATE TABLE QUOTE
+(
+    ID     BIGINT       NOT NULL PRIMARY KEY,
+    TEXT   VARCHAR(255) NOT NULL,
+    AUTHOR VARCHAR(255) NOT NULL
+);
+
+CREATE SEQUENCE quote_sequence START WITH 100 INCREMENT BY 50;
+
+INSERT INTO QUOTE (ID, TEXT, AUTHOR) VALUES (1, 'Simplicity is prerequisite for reliability', 'Edsger Dijkstra');
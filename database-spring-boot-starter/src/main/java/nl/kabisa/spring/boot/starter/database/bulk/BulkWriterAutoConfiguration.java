@@ -0,0 +1,58 @@
+package nl.kabisa.spring.boot.starter.database.bulk;
+
+import lombok.Data;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+
+/**
+ * This configuration class provides a {@link BulkWriter} for the data source, to write many rows with PostgreSQL
+ * COPY or batched multi-row INSERT statements.
+ * <p>
+ * You can enable this configuration with:
+ * <p>
+ * service.starter.database.bulk.enabled=true
+ */
+@Data
+@AutoConfiguration(after = DataSourceAutoConfiguration.class)
+@ConfigurationProperties("service.starter.database.bulk")
+@ConditionalOnClass(PGConnection.class)
+@ConditionalOnSingleCandidate(DataSource.class)
+@ConditionalOnProperty(prefix = "service.starter.database.bulk", name = "enabled", havingValue = "true", matchIfMissing = false)
+class BulkWriterAutoConfiguration {
+
+    /**
+     * Is the bulk writer enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * The size of the buffer of rows sent with one COPY message. (default is 256KB)
+     */
+    private DataSize bufferSize = DataSize.ofKilobytes(256);
+
+    /**
+     * The number of rows of a multi-row INSERT statement. (default is 100)
+     */
+    private int rowsPerStatement = 100;
+
+    /**
+     * The number of multi-row INSERT statements of a JDBC batch. (default is 10)
+     */
+    private int batchSize = 10;
+
+    @Bean
+    @ConditionalOnMissingBean
+    BulkWriter bulkWriter(DataSource dataSource) {
+        return new BulkWriter(dataSource, (int) bufferSize.toBytes(), rowsPerStatement, batchSize);
+    }
+}
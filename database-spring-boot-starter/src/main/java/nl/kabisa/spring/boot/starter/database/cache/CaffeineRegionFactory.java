@@ -0,0 +1,45 @@
+package nl.kabisa.spring.boot.starter.database.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+
+import javax.cache.Cache;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * A JCache region factory that creates every region as a bounded Caffeine cache, with the maximum size and expire
+ * after write of the region configuration. A plain JCache configuration would create unbounded caches.
+ */
+class CaffeineRegionFactory extends JCacheRegionFactory {
+
+    private final HibernateCacheAutoConfiguration cache;
+
+    CaffeineRegionFactory(HibernateCacheAutoConfiguration cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName) {
+        return getCacheManager().createCache(regionName, configuration(regionName));
+    }
+
+    CaffeineConfiguration<Object, Object> configuration(String regionName) {
+        HibernateCacheAutoConfiguration.Region region = cache.getRegions().get(regionName);
+        Long maximumSize = region != null && region.getMaximumSize() != null ? region.getMaximumSize() : cache.getMaximumSize();
+        Duration expireAfterWrite = region != null && region.getExpireAfterWrite() != null ? region.getExpireAfterWrite() : cache.getExpireAfterWrite();
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // hibernate already stores a disassembled copy of the entity state, no need to copy it again
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (region == null && regionName.endsWith(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME)) {
+            // the timestamps of the last table updates must not expire before the cached query results do
+            return configuration;
+        }
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return configuration;
+    }
+}
@@ -0,0 +1,123 @@
+package nl.kabisa.spring.boot.starter.database.cache;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * This configuration class enables the Hibernate second-level (entity) cache and the query cache, backed by local
+ * Caffeine caches through JCache. The service adds 'org.hibernate.orm:hibernate-jcache' and
+ * 'com.github.ben-manes.caffeine:jcache', the starter does not bring them. Entities are only cached when annotated with <code>@Cacheable</code> and
+ * <code>@org.hibernate.annotations.Cache</code>, queries only when the hint 'org.hibernate.cacheable' is set.
+ * <p>
+ * Every region is bounded: the maximum size and expire after write come from 'regions[region-name]', or from the
+ * defaults when a region is not configured. The region of an entity is named after the entity class.
+ * <p>
+ * Settings made with 'spring.jpa.properties.hibernate.*' take precedence. You can enable this configuration with:
+ * <p>
+ * service.starter.database.cache.enabled=true
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.database.cache")
+@ConditionalOnClass({JCacheRegionFactory.class, CaffeineCachingProvider.class, HibernatePropertiesCustomizer.class})
+@ConditionalOnProperty(prefix = "service.starter.database.cache", name = "enabled", havingValue = "true", matchIfMissing = false)
+@Slf4j
+class HibernateCacheAutoConfiguration {
+
+    /**
+     * Is the second-level cache enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Is the query cache enabled? (default is true)
+     */
+    private boolean useQueryCache = true;
+
+    /**
+     * The maximum number of entries of a region that is not configured. (default is 10000)
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * The time an entry of a region that is not configured stays in the cache after it was written. (default is 10m)
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    /**
+     * The configuration per region, the key is the region name, for example the entity class name.
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        /**
+         * The maximum number of entries in the region. (default is the default maximum size)
+         */
+        private Long maximumSize;
+
+        /**
+         * The time an entry stays in the region after it was written. (default is the default expire after write)
+         */
+        private Duration expireAfterWrite;
+    }
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager() {
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        return provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader(), new Properties());
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateCachePropertiesCustomizer(CacheManager hibernateCacheManager) {
+        log.info("Configuring Hibernate second-level cache, query cache: {}, regions: {}", useQueryCache, regions.keySet());
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+            properties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, String.valueOf(useQueryCache));
+            properties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, new CaffeineRegionFactory(this));
+            properties.putIfAbsent(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // every region is created bounded by the CaffeineRegionFactory, no need to warn about it
+            properties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+        };
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({MeterRegistry.class, JCacheMetrics.class})
+    static class CacheMetricsConfiguration {
+
+        /**
+         * Binds the hit, miss, put and eviction metrics of every region (cache.gets, cache.puts, cache.evictions),
+         * the regions are created when the entity manager factory is built, so after all singletons are instantiated.
+         */
+        @Bean
+        SmartInitializingSingleton hibernateCacheMetricsBinder(CacheManager hibernateCacheManager, ObjectProvider<MeterRegistry> meterRegistry) {
+            return () -> meterRegistry.ifAvailable(registry -> {
+                for (String name : hibernateCacheManager.getCacheNames()) {
+                    JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name), "cacheManager", "hibernate");
+                }
+            });
+        }
+    }
+}
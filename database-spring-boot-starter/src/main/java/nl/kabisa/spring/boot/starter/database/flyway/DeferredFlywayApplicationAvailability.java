@@ -0,0 +1,40 @@
+package nl.kabisa.spring.boot.starter.database.flyway;
+
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+/**
+ * The application availability while the deferred Flyway migration is enabled. The ACCEPTING_TRAFFIC the application
+ * publishes when it is started is recorded as REFUSING_TRAFFIC while the background migration runs or when it failed,
+ * the ACCEPTING_TRAFFIC of the {@link DeferredFlywayMigrationStrategy} is only recorded after the application started.
+ * <p>
+ * The state is decided where it is recorded, so it does not depend on the order in which the listeners of the
+ * availability events are called. The events are recorded one at a time, a migration that finishes while the
+ * application is started is either seen by the decision or recorded after it.
+ */
+class DeferredFlywayApplicationAvailability extends ApplicationAvailabilityBean {
+
+    private final DeferredFlywayMigrationStrategy strategy;
+    private boolean started;
+
+    DeferredFlywayApplicationAvailability(DeferredFlywayMigrationStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public synchronized void onApplicationEvent(AvailabilityChangeEvent<?> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            started |= event.getSource() != strategy;
+            if (!started) {
+                // the migration finished before the application is started
+                return;
+            }
+            if (!strategy.isAcceptingTraffic()) {
+                super.onApplicationEvent(new AvailabilityChangeEvent<>(strategy, ReadinessState.REFUSING_TRAFFIC));
+                return;
+            }
+        }
+        super.onApplicationEvent(event);
+    }
+}
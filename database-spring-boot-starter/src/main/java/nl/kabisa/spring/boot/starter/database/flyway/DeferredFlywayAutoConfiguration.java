@@ -0,0 +1,69 @@
+package nl.kabisa.spring.boot.starter.database.flyway;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.availability.ApplicationAvailabilityAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ResourceLoader;
+
+/**
+ * This configuration class takes the Flyway migration off the startup critical path.
+ * <p>
+ * When every versioned migration script is already in the schema history with the same checksum the migration (and
+ * validation) is skipped. Otherwise the migration runs in the background, the readiness state stays
+ * REFUSING_TRAFFIC until it finished, a failed migration sets the liveness state to BROKEN.
+ * <p>
+ * You can enable this configuration with:
+ * <p>
+ * service.starter.database.flyway.enabled=true
+ */
+@Data
+@AutoConfiguration(before = {FlywayAutoConfiguration.class, ApplicationAvailabilityAutoConfiguration.class})
+@ConfigurationProperties("service.starter.database.flyway")
+@ConditionalOnClass({Flyway.class, FlywayMigrationStrategy.class})
+@ConditionalOnProperty(prefix = "service.starter.database.flyway", name = "enabled", havingValue = "true", matchIfMissing = false)
+@Slf4j
+class DeferredFlywayAutoConfiguration {
+
+    /**
+     * Is the deferred migration enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Skip the migration and validation when all migration scripts are applied. (default is true)
+     */
+    private boolean skipUnchanged = true;
+
+    /**
+     * Run a needed migration in the background, with the readiness state refusing traffic. (default is true)
+     */
+    private boolean background = true;
+
+    @Bean
+    @ConditionalOnMissingBean
+    DeferredFlywayMigrationStrategy deferredFlywayMigrationStrategy(ApplicationEventPublisher publisher, ResourceLoader resourceLoader) {
+        log.info("Configuring deferred Flyway migration, skip unchanged: {}, background: {}", skipUnchanged, background);
+        return new DeferredFlywayMigrationStrategy(publisher, resourceLoader, skipUnchanged, background);
+    }
+
+    /**
+     * Replaces the application availability of Spring Boot, so the readiness state refuses traffic while the
+     * migration runs. An ApplicationAvailability of the service takes precedence.
+     */
+    @Bean
+    @ConditionalOnMissingBean(ApplicationAvailability.class)
+    DeferredFlywayApplicationAvailability applicationAvailability(DeferredFlywayMigrationStrategy strategy) {
+        return new DeferredFlywayApplicationAvailability(strategy);
+    }
+}
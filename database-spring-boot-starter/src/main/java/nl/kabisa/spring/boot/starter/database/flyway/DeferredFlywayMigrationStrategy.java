@@ -0,0 +1,219 @@
+package nl.kabisa.spring.boot.starter.database.flyway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link FlywayMigrationStrategy} that skips the migration when the schema is up-to-date and otherwise migrates
+ * in the background while holding the readiness state on REFUSING_TRAFFIC.
+ * <p>
+ * The schema is up-to-date when every versioned SQL migration in the Flyway locations is in the schema history with
+ * the checksum Flyway computes for it. A script that was changed after it was applied is migrated, so the validation
+ * of Flyway reports it. With repeatable migrations or Java migrations the schema is never considered up-to-date.
+ * <p>
+ * The ACCEPTING_TRAFFIC of the application is overruled by the {@link DeferredFlywayApplicationAvailability}, the
+ * strategy publishes ACCEPTING_TRAFFIC when the migration finished and LivenessState BROKEN when it failed. The state
+ * is set before it is published, so a finished migration is never missed by the application availability.
+ */
+@Slf4j
+public class DeferredFlywayMigrationStrategy implements FlywayMigrationStrategy {
+
+    enum State {
+        IDLE, MIGRATING, MIGRATED, FAILED
+    }
+
+    private final ApplicationEventPublisher publisher;
+    private final ResourcePatternResolver resolver;
+    private final boolean skipUnchanged;
+    private final boolean background;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.IDLE);
+
+    public DeferredFlywayMigrationStrategy(ApplicationEventPublisher publisher, ResourceLoader resourceLoader, boolean skipUnchanged, boolean background) {
+        this.publisher = publisher;
+        this.resolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        this.skipUnchanged = skipUnchanged;
+        this.background = background;
+    }
+
+    @Override
+    public void migrate(Flyway flyway) {
+        if (skipUnchanged && isUpToDate(flyway.getConfiguration())) {
+            log.info("All Flyway migrations are applied, skipping migration and validation");
+            return;
+        }
+        if (!background || !state.compareAndSet(State.IDLE, State.MIGRATING)) {
+            // only one migration runs in the background, e.g. a second Flyway bean migrates during the startup
+            flyway.migrate();
+            return;
+        }
+        log.info("Starting Flyway migration in the background, refusing traffic until it finished");
+        CompletableFuture.runAsync(flyway::migrate, task -> new Thread(task, "flyway-migration").start())
+                .whenComplete((result, failure) -> migrated(failure));
+    }
+
+    /**
+     * Is a background migration running?
+     */
+    public boolean isMigrating() {
+        return state.get() == State.MIGRATING;
+    }
+
+    /**
+     * Can the application accept traffic? Not while the background migration runs or when it failed.
+     */
+    boolean isAcceptingTraffic() {
+        State current = state.get();
+        return current != State.MIGRATING && current != State.FAILED;
+    }
+
+    private void migrated(Throwable failure) {
+        if (failure != null) {
+            log.error("Flyway migration failed", failure);
+            state.set(State.FAILED);
+            AvailabilityChangeEvent.publish(publisher, this, LivenessState.BROKEN);
+            return;
+        }
+        log.info("Flyway migration finished");
+        state.set(State.MIGRATED);
+        AvailabilityChangeEvent.publish(publisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    boolean isUpToDate(Configuration configuration) {
+        if (configuration.getJavaMigrations().length > 0) {
+            return false;
+        }
+        try {
+            Map<String, Integer> available = availableScripts(configuration);
+            if (available == null) {
+                return false;
+            }
+            Map<String, Integer> applied = appliedScripts(configuration);
+            Set<String> pending = new TreeSet<>();
+            available.forEach((script, checksum) -> {
+                if (!applied.containsKey(script)) {
+                    pending.add(script);
+                } else if (!checksum.equals(applied.get(script))) {
+                    log.warn("Flyway migration {} was changed after it was applied, migrating to validate it", script);
+                    pending.add(script);
+                }
+            });
+            if (!pending.isEmpty()) {
+                log.info("Flyway migrations to apply or validate: {}", pending);
+            }
+            return pending.isEmpty();
+        } catch (IOException | SQLException e) {
+            // no schema history yet, or locations that can not be scanned
+            log.debug("Could not compare the Flyway migrations with the schema history", e);
+            return false;
+        }
+    }
+
+    /**
+     * The checksums of the versioned SQL migrations by file name, null when there are repeatable or Java migrations.
+     */
+    private Map<String, Integer> availableScripts(Configuration configuration) throws IOException {
+        Map<String, Integer> scripts = new HashMap<>();
+        for (Location location : configuration.getLocations()) {
+            String root = location.isClassPath() ? "classpath*:" : location.isFileSystem() ? "file:" : null;
+            if (root == null) {
+                return null;
+            }
+            for (Resource resource : resolver.getResources(root + location.getRootPath() + "/**/*")) {
+                String name = resource.getFilename();
+                if (name == null) {
+                    continue;
+                }
+                if (name.startsWith(configuration.getRepeatableSqlMigrationPrefix()) || name.endsWith(".class")) {
+                    return null;
+                }
+                if (name.startsWith(configuration.getSqlMigrationPrefix()) && hasSuffix(name, configuration.getSqlMigrationSuffixes())) {
+                    scripts.put(name, checksum(resource, configuration.getEncoding()));
+                }
+            }
+        }
+        return scripts;
+    }
+
+    /**
+     * The checksum Flyway stores in the schema history: the CRC32 of the UTF-8 bytes of the lines without line
+     * breaks, and without the byte order mark of the first line.
+     */
+    static int checksum(Resource resource, Charset encoding) throws IOException {
+        CRC32 crc32 = new CRC32();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), encoding))) {
+            String line = reader.readLine();
+            if (line != null && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            while (line != null) {
+                crc32.update(line.getBytes(StandardCharsets.UTF_8));
+                line = reader.readLine();
+            }
+        }
+        return (int) crc32.getValue();
+    }
+
+    private static boolean hasSuffix(String name, String[] suffixes) {
+        for (String suffix : suffixes) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The checksums of the successfully applied migrations by file name.
+     */
+    private Map<String, Integer> appliedScripts(Configuration configuration) throws SQLException {
+        Map<String, Integer> scripts = new HashMap<>();
+        try (Connection connection = configuration.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            String quote = connection.getMetaData().getIdentifierQuoteString().trim();
+            String schema = StringUtils.hasText(configuration.getDefaultSchema()) ? configuration.getDefaultSchema()
+                    : configuration.getSchemas().length > 0 ? configuration.getSchemas()[0] : null;
+            String table = (schema != null ? quote + schema + quote + "." : "") + quote + configuration.getTable() + quote;
+            try (ResultSet resultSet = statement.executeQuery("SELECT " + quote + "script" + quote + ", " + quote + "checksum" + quote
+                    + ", " + quote + "success" + quote + " FROM " + table)) {
+                while (resultSet.next()) {
+                    String script = resultSet.getString(1);
+                    Object checksum = resultSet.getObject(2);
+                    if (resultSet.getBoolean(3) && checksum instanceof Number number) {
+                        scripts.put(script.substring(script.lastIndexOf('/') + 1), number.intValue());
+                    }
+                }
+            }
+        }
+        return scripts;
+    }
+}
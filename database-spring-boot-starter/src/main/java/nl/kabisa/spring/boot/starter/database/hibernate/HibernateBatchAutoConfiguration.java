@@ -0,0 +1,109 @@
+package nl.kabisa.spring.boot.starter.database.hibernate;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * This configuration class enables JDBC batching in Hibernate, so saving many entities results in a few
+ * batched statements instead of a round-trip per row.
+ * <p>
+ * Batching of inserts only works for entities with a sequence (or table) based id generator, Hibernate can not
+ * batch inserts of entities with an IDENTITY id. Use an allocationSize that matches the batch size, like the
+ * pooled quote_sequence of the example QuoteEntity.
+ * <p>
+ * Settings made with 'spring.jpa.properties.hibernate.*' take precedence. You can disable this configuration with:
+ * <p>
+ * service.starter.database.batch.enabled=false
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.database.batch")
+@ConditionalOnClass({AvailableSettings.class, HibernatePropertiesCustomizer.class})
+@ConditionalOnProperty(prefix = "service.starter.database.batch", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+class HibernateBatchAutoConfiguration {
+
+    /**
+     * Is JDBC batching enabled? (default is true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * The number of statements in a JDBC batch (hibernate.jdbc.batch_size). (default is 50)
+     */
+    private int batchSize = 50;
+
+    /**
+     * Order inserts by entity type, so they can be batched (hibernate.order_inserts). (default is true)
+     */
+    private boolean orderInserts = true;
+
+    /**
+     * Order updates by entity type and id, so they can be batched (hibernate.order_updates). (default is true)
+     */
+    private boolean orderUpdates = true;
+
+    /**
+     * Batch updates of versioned entities (hibernate.jdbc.batch_versioned_data). (default is true)
+     */
+    private boolean batchVersionedData = true;
+
+    /**
+     * PostgreSQL: let the driver rewrite a batch of inserts to multi-row inserts (reWriteBatchedInserts). (default is true)
+     */
+    private boolean rewriteBatchedInserts = true;
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateBatchPropertiesCustomizer() {
+        log.info("Configuring Hibernate JDBC batching, batch size: {}", batchSize);
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize));
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, String.valueOf(orderInserts));
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, String.valueOf(orderUpdates));
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, String.valueOf(batchVersionedData));
+        };
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HikariDataSource.class)
+    @ConditionalOnProperty(prefix = "service.starter.database.batch", name = "rewrite-batched-inserts", havingValue = "true", matchIfMissing = true)
+    static class PostgreSqlBatchConfiguration {
+
+        @Bean
+        static RewriteBatchedInsertsPostProcessor rewriteBatchedInsertsPostProcessor() {
+            return new RewriteBatchedInsertsPostProcessor();
+        }
+    }
+
+    /**
+     * Runs before the post processors that wrap the data source, like the JDBC instrumentation.
+     */
+    static class RewriteBatchedInsertsPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource dataSource && dataSource.getJdbcUrl() != null
+                    && dataSource.getJdbcUrl().startsWith("jdbc:postgresql:")
+                    && !dataSource.getDataSourceProperties().containsKey("reWriteBatchedInserts")) {
+                dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+            }
+            return bean;
+        }
+    }
+}
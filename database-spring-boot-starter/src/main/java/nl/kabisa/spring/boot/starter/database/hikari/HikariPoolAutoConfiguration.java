@@ -0,0 +1,137 @@
+package nl.kabisa.spring.boot.starter.database.hikari;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * This configuration class sizes the Hikari connection pool of the application from the available processors,
+ * instead of the Hikari default of 10 connections.
+ * <p>
+ * maximumPoolSize = min(processors * connectionsPerCore + effectiveSpindleCount, targetConcurrency)
+ * <p>
+ * More connections than the database can work on in parallel only queue the work in the database, the
+ * connections above this size are better queued in the pool. Settings made with 'spring.datasource.hikari.*'
+ * always take precedence.
+ * <p>
+ * You can disable this configuration with:
+ * <p>
+ * service.starter.database.pool.enabled=false
+ *
+ * @see <a href="https://github.com/brettwooldridge/HikariCP/wiki/About-Pool-Sizing">About Pool Sizing</a>
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.database.pool")
+@ConditionalOnClass(HikariDataSource.class)
+@ConditionalOnProperty(prefix = "service.starter.database.pool", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+class HikariPoolAutoConfiguration {
+
+    /**
+     * Is the pool sizing enabled? (default is true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * The number of concurrent transactions the service is expected to run, caps the pool size. (default is 0, no cap)
+     */
+    private int targetConcurrency = 0;
+
+    /**
+     * The number of connections per available processor. (default is 2)
+     */
+    private int connectionsPerCore = 2;
+
+    /**
+     * The number of connections added for waiting on I/O of the database. (default is 1)
+     */
+    private int effectiveSpindleCount = 1;
+
+    /**
+     * The minimum pool size. (default is 2)
+     */
+    private int minimumPoolSize = 2;
+
+    /**
+     * Keep the pool at its maximum size (minimumIdle = maximumPoolSize) as recommended by Hikari? (default is true)
+     * When false the minimumIdle is half of the maximumPoolSize.
+     */
+    private boolean fixedSize = true;
+
+    /**
+     * The maximum time to wait for a connection from the pool. (default is 5 seconds)
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+
+    /**
+     * The maximum lifetime of a connection, keep it below the connection timeouts of the database and the network. (default is 25 minutes)
+     */
+    private Duration maxLifetime = Duration.ofMinutes(25);
+
+    /**
+     * PostgreSQL: the number of executions before a statement is prepared on the server. (default is 5)
+     */
+    private int prepareThreshold = 5;
+
+    /**
+     * PostgreSQL: the number of prepared statements cached per connection. (default is 512)
+     */
+    private int preparedStatementCacheQueries = 512;
+
+    /**
+     * PostgreSQL: the maximum size in MiB of the prepared statements cached per connection. (default is 8)
+     */
+    private int preparedStatementCacheSizeMiB = 8;
+
+    /**
+     * Publish a percentile histogram of the connection acquire (wait) time and usage time? (default is true)
+     */
+    private boolean publishHistogram = true;
+
+    @Bean
+    static HikariPoolSizingPostProcessor hikariPoolSizingPostProcessor(ObjectProvider<HikariPoolAutoConfiguration> configuration, Environment environment) {
+        log.info("Configuring HikariPoolSizingPostProcessor");
+        return new HikariPoolSizingPostProcessor(configuration, environment);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterFilter.class)
+    @ConditionalOnProperty(prefix = "service.starter.database.pool", name = "publish-histogram", havingValue = "true", matchIfMissing = true)
+    static class HikariMetricsConfiguration {
+
+        /**
+         * The acquire timer of the Hikari metrics (enabled by the actuator when a MeterRegistry is available) shows
+         * how long threads wait for a connection, the histogram makes contention visible in the percentiles.
+         */
+        @Bean
+        MeterFilter hikariHistogramMeterFilter() {
+            return new MeterFilter() {
+                @Override
+                public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                    if (id.getName().equals("hikaricp.connections.acquire") || id.getName().equals("hikaricp.connections.usage")) {
+                        return DistributionStatisticConfig.builder()
+                                .percentilesHistogram(true)
+                                .percentiles(0.5, 0.95, 0.99)
+                                .build()
+                                .merge(config);
+                    }
+                    return config;
+                }
+            };
+        }
+    }
+}
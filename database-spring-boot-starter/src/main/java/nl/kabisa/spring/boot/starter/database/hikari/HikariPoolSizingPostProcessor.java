@@ -0,0 +1,92 @@
+package nl.kabisa.spring.boot.starter.database.hikari;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Applies the pool size and timeouts of the {@link HikariPoolAutoConfiguration} to {@link HikariDataSource} beans,
+ * the pool is started on the first connection request, after the post processing of the bean.
+ * <p>
+ * Values configured with 'spring.datasource.hikari.*' are left untouched. It runs before the post processors that
+ * wrap the data source, like the JDBC instrumentation.
+ */
+@Slf4j
+class HikariPoolSizingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari.";
+
+    private final ObjectProvider<HikariPoolAutoConfiguration> configuration;
+    private final Environment environment;
+
+    HikariPoolSizingPostProcessor(ObjectProvider<HikariPoolAutoConfiguration> configuration, Environment environment) {
+        this.configuration = configuration;
+        this.environment = environment;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            int processors = Runtime.getRuntime().availableProcessors();
+            configure(dataSource, configuration.getObject(), processors);
+            log.info("Hikari pool of data source '{}': maximumPoolSize={}, minimumIdle={}, connectionTimeout={} ms, maxLifetime={} ms ({} processors)",
+                    beanName, dataSource.getMaximumPoolSize(), dataSource.getMinimumIdle(),
+                    dataSource.getConnectionTimeout(), dataSource.getMaxLifetime(), processors);
+        }
+        return bean;
+    }
+
+    void configure(HikariDataSource dataSource, HikariPoolAutoConfiguration pool, int processors) {
+        Binder binder = Binder.get(environment);
+        int maximumPoolSize = dataSource.getMaximumPoolSize();
+        if (!isConfigured(binder, "maximum-pool-size")) {
+            maximumPoolSize = maximumPoolSize(processors, pool);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+        }
+        if (!isConfigured(binder, "minimum-idle")) {
+            dataSource.setMinimumIdle(pool.isFixedSize() ? maximumPoolSize : Math.max(1, (maximumPoolSize + 1) / 2));
+        }
+        if (!isConfigured(binder, "connection-timeout")) {
+            dataSource.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+        }
+        if (!isConfigured(binder, "max-lifetime")) {
+            dataSource.setMaxLifetime(pool.getMaxLifetime().toMillis());
+        }
+        if (isPostgreSql(dataSource)) {
+            addDataSourceProperty(dataSource, "prepareThreshold", pool.getPrepareThreshold());
+            addDataSourceProperty(dataSource, "preparedStatementCacheQueries", pool.getPreparedStatementCacheQueries());
+            addDataSourceProperty(dataSource, "preparedStatementCacheSizeMiB", pool.getPreparedStatementCacheSizeMiB());
+        }
+    }
+
+    static int maximumPoolSize(int processors, HikariPoolAutoConfiguration pool) {
+        int size = processors * pool.getConnectionsPerCore() + pool.getEffectiveSpindleCount();
+        if (pool.getTargetConcurrency() > 0) {
+            size = Math.min(size, pool.getTargetConcurrency());
+        }
+        return Math.max(size, pool.getMinimumPoolSize());
+    }
+
+    static boolean isPostgreSql(HikariDataSource dataSource) {
+        return dataSource.getJdbcUrl() != null && dataSource.getJdbcUrl().startsWith("jdbc:postgresql:");
+    }
+
+    private boolean isConfigured(Binder binder, String property) {
+        return binder.bind(HIKARI_PREFIX + property, String.class).isBound();
+    }
+
+    private void addDataSourceProperty(HikariDataSource dataSource, String name, Object value) {
+        if (!dataSource.getDataSourceProperties().containsKey(name)) {
+            dataSource.addDataSourceProperty(name, String.valueOf(value));
+        }
+    }
+}
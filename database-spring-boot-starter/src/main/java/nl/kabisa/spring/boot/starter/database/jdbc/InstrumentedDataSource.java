@@ -0,0 +1,99 @@
+package nl.kabisa.spring.boot.starter.database.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A data source that times every statement execution and reports it to the {@link JdbcInstrumentation}.
+ * <p>
+ * Connections and statements are wrapped in JDK proxies, only the execute methods do some work: two calls to
+ * {@link System#nanoTime()} and the recording of the statistics.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final JdbcInstrumentation instrumentation;
+
+    public InstrumentedDataSource(DataSource targetDataSource, JdbcInstrumentation instrumentation) {
+        super(targetDataSource);
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(super.getConnection(username, password));
+    }
+
+    private Connection proxy(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement and prepareCall have the SQL as first argument, createStatement has it on execute
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return proxy(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private Statement proxy(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        InstrumentedStatement handler = new InstrumentedStatement(statement, preparedSql);
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler::invoke);
+    }
+
+    private final class InstrumentedStatement {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private int parameters;
+        private String batchSql;
+
+        private InstrumentedStatement(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        private Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String s ? s : batchSql;
+                long start = System.nanoTime();
+                try {
+                    return InstrumentedDataSource.invoke(statement, method, args);
+                } finally {
+                    instrumentation.executed(sql, parameters, System.nanoTime() - start);
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters = Math.max(parameters, index);
+            } else if ("addBatch".equals(name) && args != null && args.length == 1 && args[0] instanceof String sql && batchSql == null) {
+                batchSql = sql;
+            }
+            return InstrumentedDataSource.invoke(statement, method, args);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package nl.kabisa.spring.boot.starter.database.jdbc;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint 'jdbc' with the statement statistics and the recent slow query and N+1 findings,
+ * a DELETE resets them.
+ */
+@Endpoint(id = "jdbc")
+public class JdbcEndpoint {
+
+    private static final int MAX_STATEMENTS = 50;
+
+    private final JdbcInstrumentation instrumentation;
+
+    public JdbcEndpoint(JdbcInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    @ReadOperation
+    public Map<String, Object> jdbc() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statements", instrumentation.getStatements().stream().limit(MAX_STATEMENTS).toList());
+        result.put("findings", instrumentation.getFindings());
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        instrumentation.reset();
+    }
+}
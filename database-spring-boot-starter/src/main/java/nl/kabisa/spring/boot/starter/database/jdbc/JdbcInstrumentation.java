@@ -0,0 +1,170 @@
+package nl.kabisa.spring.boot.starter.database.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the statistics of the executed statements per normalized SQL, logs slow queries and detects requests that
+ * execute the same statement shape more than a threshold, the N+1 select problem.
+ * <p>
+ * The findings (slow queries and N+1 selects) are kept in a bounded list, with the id and uri of the request that
+ * executed them. The number of statement shapes is bounded too, statements beyond the maximum are counted as 'other'.
+ */
+@Slf4j
+public class JdbcInstrumentation {
+
+    static final String OTHER = "other";
+
+    public enum FindingType {
+        SLOW_QUERY, N_PLUS_ONE
+    }
+
+    public record Finding(FindingType type, Instant timestamp, String requestId, String uri, String sql, int count, double millis, int parameters) {
+    }
+
+    public record StatementSummary(String sql, long count, double totalMillis, double meanMillis, double maxMillis) {
+    }
+
+    private static final class StatementStatistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    private static final class RequestStatements {
+        private final String requestId;
+        private final String uri;
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        private RequestStatements(String requestId, String uri) {
+            this.requestId = requestId;
+            this.uri = uri;
+        }
+    }
+
+    private final long slowQueryNanos;
+    private final int repeatedStatementThreshold;
+    private final int maxStatements;
+    private final int maxFindings;
+    private final List<StatementListener> listeners;
+
+    private final Map<String, StatementStatistics> statements = new ConcurrentHashMap<>();
+    private final Deque<Finding> findings = new ArrayDeque<>();
+    private final ThreadLocal<RequestStatements> request = new ThreadLocal<>();
+
+    public JdbcInstrumentation(Duration slowQueryThreshold, int repeatedStatementThreshold, int maxStatements, int maxFindings, List<StatementListener> listeners) {
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+        this.maxStatements = maxStatements;
+        this.maxFindings = maxFindings;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Starts counting the statements of a request on the current thread.
+     */
+    public void requestStarted(String requestId, String uri) {
+        request.set(new RequestStatements(requestId, uri));
+    }
+
+    /**
+     * Stops counting the statements of the request on the current thread, and reports the N+1 selects.
+     */
+    public void requestFinished() {
+        RequestStatements statements = request.get();
+        request.remove();
+        if (statements == null) {
+            return;
+        }
+        statements.counts.forEach((sql, count) -> {
+            if (count > repeatedStatementThreshold) {
+                log.warn("N+1 statement, executed {} times by request {} {}: {}", count, statements.requestId, statements.uri, sql);
+                addFinding(new Finding(FindingType.N_PLUS_ONE, Instant.now(), statements.requestId, statements.uri, sql, count, 0, 0));
+            }
+        });
+    }
+
+    /**
+     * Records the execution of a statement.
+     *
+     * @param sql        the SQL as sent to the database
+     * @param parameters the number of bind parameters
+     * @param nanos      the execution time in nanoseconds
+     */
+    void executed(String sql, int parameters, long nanos) {
+        String normalized = SqlNormalizer.normalize(sql);
+        String key = statements.containsKey(normalized) || statements.size() < maxStatements ? normalized : OTHER;
+        StatementStatistics statistics = statements.computeIfAbsent(key, k -> new StatementStatistics());
+        statistics.count.increment();
+        statistics.totalNanos.add(nanos);
+        statistics.maxNanos.accumulate(nanos);
+
+        RequestStatements current = request.get();
+        if (current != null) {
+            current.counts.merge(normalized, 1, Integer::sum);
+        }
+        if (nanos >= slowQueryNanos) {
+            double millis = nanos / 1_000_000d;
+            String requestId = current != null ? current.requestId : null;
+            String uri = current != null ? current.uri : null;
+            log.warn("Slow query, {} ms with {} bind parameters, request {} {}: {}", String.format("%.1f", millis), parameters, requestId, uri, normalized);
+            addFinding(new Finding(FindingType.SLOW_QUERY, Instant.now(), requestId, uri, normalized, 1, millis, parameters));
+        }
+        for (StatementListener listener : listeners) {
+            listener.executed(key, nanos);
+        }
+    }
+
+    /**
+     * The statistics per statement shape, the most time-consuming first.
+     */
+    public List<StatementSummary> getStatements() {
+        List<StatementSummary> summaries = new ArrayList<>();
+        statements.forEach((sql, statistics) -> {
+            long count = statistics.count.sum();
+            double total = statistics.totalNanos.sum() / 1_000_000d;
+            summaries.add(new StatementSummary(sql, count, total, count > 0 ? total / count : 0,
+                    TimeUnit.NANOSECONDS.toMicros(statistics.maxNanos.get()) / 1000d));
+        });
+        summaries.sort(Comparator.comparingDouble(StatementSummary::totalMillis).reversed());
+        return summaries;
+    }
+
+    /**
+     * The recent findings, the most recent first.
+     */
+    public List<Finding> getFindings() {
+        synchronized (findings) {
+            return new ArrayList<>(findings);
+        }
+    }
+
+    public void reset() {
+        statements.clear();
+        synchronized (findings) {
+            findings.clear();
+        }
+    }
+
+    private void addFinding(Finding finding) {
+        synchronized (findings) {
+            findings.addFirst(finding);
+            while (findings.size() > maxFindings) {
+                findings.removeLast();
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package nl.kabisa.spring.boot.starter.database.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.Filter;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This configuration class wraps the 'dataSource' bean in an {@link InstrumentedDataSource} that records the
+ * statistics per normalized SQL, logs slow queries and reports requests that execute the same statement more than
+ * a threshold (N+1 selects).
+ * <p>
+ * The findings are available in the actuator endpoint 'jdbc', the execution times in the metric 'jdbc.statements'
+ * with the normalized SQL as tag. You can enable this configuration with:
+ * <p>
+ * service.starter.database.jdbc.enabled=true
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.database.jdbc")
+@ConditionalOnClass(DataSource.class)
+@ConditionalOnProperty(prefix = "service.starter.database.jdbc", name = "enabled", havingValue = "true", matchIfMissing = false)
+@Slf4j
+class JdbcInstrumentationAutoConfiguration {
+
+    /**
+     * Is the JDBC instrumentation enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Statements that take longer are logged as slow query. (default is 500ms)
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(500);
+
+    /**
+     * A request that executes the same statement more often is reported as N+1. (default is 10)
+     */
+    private int repeatedStatementThreshold = 10;
+
+    /**
+     * The maximum number of statement shapes with their own statistics and metrics, others count as 'other'. (default is 100)
+     */
+    private int maxStatements = 100;
+
+    /**
+     * The number of recent findings kept for the endpoint. (default is 100)
+     */
+    private int maxFindings = 100;
+
+    /**
+     * The request header with the request id. (default is X-Request-Id)
+     */
+    private String requestIdHeader = "X-Request-Id";
+
+    /**
+     * The MDC key of the request id when the header is missing. (default is traceId)
+     */
+    private String requestIdMdcKey = "traceId";
+
+    /**
+     * Publish the percentile histogram of the jdbc.statements metric. (default is false)
+     */
+    private boolean publishHistogram = false;
+
+    @Bean
+    JdbcInstrumentation jdbcInstrumentation(ObjectProvider<StatementListener> listeners) {
+        log.info("Configuring JDBC instrumentation, slow query threshold: {}, N+1 threshold: {}", slowQueryThreshold, repeatedStatementThreshold);
+        return new JdbcInstrumentation(slowQueryThreshold, repeatedStatementThreshold, maxStatements, maxFindings, listeners.orderedStream().toList());
+    }
+
+    @Bean
+    static InstrumentedDataSourcePostProcessor jdbcInstrumentationPostProcessor(ObjectProvider<JdbcInstrumentation> instrumentation) {
+        return new InstrumentedDataSourcePostProcessor(instrumentation);
+    }
+
+    /**
+     * Wraps the 'dataSource' bean, after the post processors that configure the Hikari pool.
+     */
+    static class InstrumentedDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<JdbcInstrumentation> instrumentation;
+
+        InstrumentedDataSourcePostProcessor(ObjectProvider<JdbcInstrumentation> instrumentation) {
+            this.instrumentation = instrumentation;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource) && "dataSource".equals(beanName)) {
+                return new InstrumentedDataSource(dataSource, instrumentation.getObject());
+            }
+            return bean;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({Filter.class, OncePerRequestFilter.class, FilterRegistrationBean.class})
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class JdbcRequestConfiguration {
+
+        @Bean
+        FilterRegistrationBean<JdbcRequestFilter> jdbcRequestFilter(JdbcInstrumentation instrumentation, JdbcInstrumentationAutoConfiguration configuration) {
+            FilterRegistrationBean<JdbcRequestFilter> result = new FilterRegistrationBean<>(new JdbcRequestFilter(
+                    instrumentation, configuration.getRequestIdHeader(), configuration.getRequestIdMdcKey()));
+            result.setOrder(Ordered.HIGHEST_PRECEDENCE + 20); // after the observation filter, that puts the trace id in the MDC when tracing is used
+            return result;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class JdbcEndpointConfiguration {
+
+        @Bean
+        JdbcEndpoint jdbcEndpoint(JdbcInstrumentation instrumentation) {
+            return new JdbcEndpoint(instrumentation);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class JdbcMetricsConfiguration {
+
+        @Bean
+        StatementListener jdbcStatementMetrics(ObjectProvider<MeterRegistry> meterRegistry, JdbcInstrumentationAutoConfiguration configuration) {
+            Map<String, Timer> timers = new ConcurrentHashMap<>();
+            // the number of sql tags is bounded by the maximum number of statement shapes
+            return (sql, nanos) -> {
+                Timer timer = timers.computeIfAbsent(sql, key -> {
+                    MeterRegistry registry = meterRegistry.getIfAvailable();
+                    return registry == null ? null : Timer.builder("jdbc.statements")
+                            .description("Execution time of the JDBC statements per normalized SQL")
+                            .tag("sql", key)
+                            .publishPercentileHistogram(configuration.isPublishHistogram())
+                            .register(registry);
+                });
+                if (timer != null) {
+                    timer.record(nanos, TimeUnit.NANOSECONDS);
+                }
+            };
+        }
+    }
+}
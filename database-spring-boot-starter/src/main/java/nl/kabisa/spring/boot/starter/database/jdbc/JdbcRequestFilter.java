@@ -0,0 +1,41 @@
+package nl.kabisa.spring.boot.starter.database.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Marks the statements executed by a request, so the {@link JdbcInstrumentation} can report the N+1 selects of the
+ * request. The request id is taken from a request header, or else from the logging MDC (the trace id).
+ */
+class JdbcRequestFilter extends OncePerRequestFilter {
+
+    private final JdbcInstrumentation instrumentation;
+    private final String requestIdHeader;
+    private final String requestIdMdcKey;
+
+    JdbcRequestFilter(JdbcInstrumentation instrumentation, String requestIdHeader, String requestIdMdcKey) {
+        this.instrumentation = instrumentation;
+        this.requestIdHeader = requestIdHeader;
+        this.requestIdMdcKey = requestIdMdcKey;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        String requestId = request.getHeader(requestIdHeader);
+        if (requestId == null) {
+            requestId = MDC.get(requestIdMdcKey);
+        }
+        instrumentation.requestStarted(requestId, request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            instrumentation.requestFinished();
+        }
+    }
+}
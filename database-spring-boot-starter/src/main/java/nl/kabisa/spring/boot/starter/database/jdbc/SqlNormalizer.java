@@ -0,0 +1,46 @@
+package nl.kabisa.spring.boot.starter.database.jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes SQL to its statement shape: literals become '?', whitespace is collapsed and IN lists are reduced to a
+ * single parameter, so executions of the same statement with other values are counted together.
+ */
+final class SqlNormalizer {
+
+    private static final int MAX_LENGTH = 1000;
+    private static final int MAX_CACHED = 2000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin \\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private SqlNormalizer() {
+    }
+
+    static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String normalized = CACHE.get(sql);
+        if (normalized == null) {
+            normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+            normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+            normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+            normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+            if (normalized.length() > MAX_LENGTH) {
+                normalized = normalized.substring(0, MAX_LENGTH);
+            }
+            // statements with literals would fill the cache, it is bounded
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.put(sql, normalized);
+            }
+        }
+        return normalized;
+    }
+}
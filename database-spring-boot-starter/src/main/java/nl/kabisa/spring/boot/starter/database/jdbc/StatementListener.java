@@ -0,0 +1,15 @@
+package nl.kabisa.spring.boot.starter.database.jdbc;
+
+/**
+ * Listener for the statements executed through the {@link InstrumentedDataSource}.
+ */
+public interface StatementListener {
+
+    /**
+     * Called after a statement was executed.
+     *
+     * @param sql   the normalized SQL, or 'other' when the maximum number of statement shapes is reached
+     * @param nanos the execution time in nanoseconds
+     */
+    void executed(String sql, long nanos);
+}
@@ -0,0 +1,115 @@
+package nl.kabisa.spring.boot.starter.database.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Encodes the sort key values of a {@link KeysetScrollPosition} to an opaque, url safe cursor and back.
+ * <p>
+ * The cursor holds the property name, type and value of every sort key. Only simple types are supported, the
+ * values are parsed back without deserializing objects, so a cursor received from a client can not do harm.
+ */
+public final class KeysetCursor {
+
+    private static final Map<String, Function<String, Object>> PARSERS = Map.of(
+            "s", value -> value,
+            "l", Long::valueOf,
+            "i", Integer::valueOf,
+            "b", Boolean::valueOf,
+            "n", BigDecimal::new,
+            "u", UUID::fromString,
+            "d", LocalDate::parse,
+            "t", LocalDateTime::parse,
+            "z", OffsetDateTime::parse,
+            "x", Instant::parse);
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(KeysetScrollPosition position) {
+        StringJoiner joiner = new StringJoiner("&");
+        position.getKeys().forEach((name, value) -> joiner.add(encode(name) + "=" + type(value) + ":" + encode(String.valueOf(value))));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor to the position after its sort key values.
+     *
+     * @throws IllegalArgumentException when the cursor is invalid or its keys are not the properties of the sort
+     */
+    public static KeysetScrollPosition decode(String cursor, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for (String key : decoded.split("&")) {
+                int equals = key.indexOf('=');
+                int colon = key.indexOf(':', equals);
+                Function<String, Object> parser = equals > 0 && colon > equals ? PARSERS.get(key.substring(equals + 1, colon)) : null;
+                if (parser == null) {
+                    throw new IllegalArgumentException("Invalid key: " + key);
+                }
+                keys.put(decode(key.substring(0, equals)), parser.apply(decode(key.substring(colon + 1))));
+            }
+        } catch (RuntimeException e) {
+            // a malformed base64, key or value
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        Set<String> properties = new HashSet<>();
+        sort.forEach(order -> properties.add(order.getProperty()));
+        if (!properties.equals(keys.keySet())) {
+            throw new IllegalArgumentException("Cursor does not match the sort " + sort + ": " + cursor);
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private static String type(Object value) {
+        if (value instanceof String) {
+            return "s";
+        } else if (value instanceof Long) {
+            return "l";
+        } else if (value instanceof Integer) {
+            return "i";
+        } else if (value instanceof Boolean) {
+            return "b";
+        } else if (value instanceof BigDecimal) {
+            return "n";
+        } else if (value instanceof UUID) {
+            return "u";
+        } else if (value instanceof LocalDate) {
+            return "d";
+        } else if (value instanceof LocalDateTime) {
+            return "t";
+        } else if (value instanceof OffsetDateTime) {
+            return "z";
+        } else if (value instanceof Instant) {
+            return "x";
+        }
+        throw new IllegalArgumentException("Unsupported sort key type: " + (value == null ? null : value.getClass().getName()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
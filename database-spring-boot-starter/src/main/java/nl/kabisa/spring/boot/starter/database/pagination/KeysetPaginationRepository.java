@@ -0,0 +1,60 @@
+package nl.kabisa.spring.boot.starter.database.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Repository fragment for keyset (seek) pagination, add it to the interfaces of a repository:
+ * <pre>
+ * public interface QuoteRepository extends JpaRepository&lt;QuoteEntity, Long&gt;, KeysetPaginationRepository&lt;QuoteEntity&gt; {
+ * }
+ * </pre>
+ * A keyset page continues after the sort key values of the last row of the previous page (WHERE (creation_date, id) &gt;
+ * (?, ?)), instead of skipping the rows of all previous pages with an OFFSET. With an index on the sort key every page
+ * is as fast as the first one. The sort must end with a unique property, like the id, to make the order deterministic.
+ * <p>
+ * An invalid cursor is an {@link IllegalArgumentException}, the repository proxy translates it to an
+ * {@link org.springframework.dao.InvalidDataAccessApiUsageException}.
+ *
+ * @param <T> the entity type
+ */
+@NoRepositoryBean
+public interface KeysetPaginationRepository<T> extends JpaSpecificationExecutor<T> {
+
+    /**
+     * Returns the first page, or the page after the given cursor, of all entities.
+     *
+     * @param sort   the sort on the indexed sort key, ending with a unique property
+     * @param size   the maximum number of entities of the page
+     * @param cursor the next cursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException when the cursor is invalid or does not match the sort
+     */
+    default KeysetWindow<T> findPage(Sort sort, int size, String cursor) {
+        return findPage(Specification.where(null), sort, size, cursor);
+    }
+
+    /**
+     * Returns the first page, or the page after the given cursor, of the entities matching the specification.
+     *
+     * @param specification the filter, must be the same for all pages
+     * @param sort          the sort on the indexed sort key, ending with a unique property
+     * @param size          the maximum number of entities of the page
+     * @param cursor        the next cursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException when the cursor is invalid or does not match the sort
+     */
+    default KeysetWindow<T> findPage(Specification<T> specification, Sort sort, int size, String cursor) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1: " + size);
+        }
+        KeysetScrollPosition position = cursor == null ? ScrollPosition.keyset() : KeysetCursor.decode(cursor, sort);
+        Window<T> window = findBy(specification, query -> query.sortBy(sort).limit(size).scroll(position));
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? KeysetCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1)) : null;
+        return new KeysetWindow<>(window.getContent(), nextCursor);
+    }
+}
@@ -0,0 +1,17 @@
+package nl.kabisa.spring.boot.starter.database.pagination;
+
+import java.util.List;
+
+/**
+ * A page of a keyset pagination.
+ *
+ * @param content    the entities of the page
+ * @param nextCursor the opaque cursor of the next page, null on the last page
+ * @param <T>        the entity type
+ */
+public record KeysetWindow<T>(List<T> content, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,113 @@
+package nl.kabisa.spring.boot.starter.database.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This configuration class retries the methods annotated with {@link RetryOnOptimisticLock} when they fail on an
+ * optimistic lock conflict of a @Version entity. The retry advice is ordered before the transaction advice, so every
+ * attempt runs in a new transaction.
+ * <p>
+ * The conflicts are counted in the metric 'optimistic.lock.conflicts' with the method and the outcome (retried or
+ * exhausted) as tags. You can disable this configuration with:
+ * <p>
+ * service.starter.database.retry.enabled=false
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.database.retry")
+@ConditionalOnClass(PlatformTransactionManager.class)
+@ConditionalOnProperty(prefix = "service.starter.database.retry", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+class OptimisticLockRetryAutoConfiguration {
+
+    /**
+     * The order of the retry advice, the transaction advice has the lowest precedence by default.
+     */
+    static final int ORDER = Ordered.LOWEST_PRECEDENCE - 10;
+
+    /**
+     * Is the optimistic lock retry enabled? (default is true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * The maximum number of attempts, including the first call. (default is 3)
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * The backoff before the first retry. (default is 20ms)
+     */
+    private Duration initialBackoff = Duration.ofMillis(20);
+
+    /**
+     * The maximum backoff between attempts. (default is 500ms)
+     */
+    private Duration maxBackoff = Duration.ofMillis(500);
+
+    /**
+     * The factor the backoff is multiplied with after every attempt. (default is 2.0)
+     */
+    private double multiplier = 2.0;
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    Advisor optimisticLockRetryAdvisor(ObjectProvider<OptimisticLockRetryListener> listeners) {
+        log.info("Configuring optimistic lock retry, max attempts: {}, backoff: {} - {}", maxAttempts, initialBackoff, maxBackoff);
+        OptimisticLockRetryInterceptor interceptor = new OptimisticLockRetryInterceptor(
+                maxAttempts, initialBackoff, maxBackoff, multiplier, listeners.orderedStream().toList());
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(RetryOnOptimisticLock.class, true))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(RetryOnOptimisticLock.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(ORDER);
+        return advisor;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class OptimisticLockRetryMetricsConfiguration {
+
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        OptimisticLockRetryListener optimisticLockRetryMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            Map<String, Counter> counters = new ConcurrentHashMap<>();
+            // the number of method tags is bounded by the number of annotated methods
+            return (method, attempt, retried) -> {
+                String outcome = retried ? "retried" : "exhausted";
+                Counter counter = counters.computeIfAbsent(method + ":" + outcome, key -> {
+                    MeterRegistry registry = meterRegistry.getIfAvailable();
+                    return registry == null ? null : Counter.builder("optimistic.lock.conflicts")
+                            .description("Optimistic lock conflicts of the methods annotated with @RetryOnOptimisticLock")
+                            .tag("method", method)
+                            .tag("outcome", outcome)
+                            .register(registry);
+                });
+                if (counter != null) {
+                    counter.increment();
+                }
+            };
+        }
+    }
+}
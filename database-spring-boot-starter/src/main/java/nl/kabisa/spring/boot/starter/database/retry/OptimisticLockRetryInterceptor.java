@@ -0,0 +1,120 @@
+package nl.kabisa.spring.boot.starter.database.retry;
+
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.StaleStateException;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls a {@link RetryOnOptimisticLock} method again when it fails on an optimistic lock conflict, at most max
+ * attempts times. Before a retry the thread sleeps a random time between 0 and the backoff, the backoff starts at the
+ * initial backoff and is multiplied after every attempt up to the maximum backoff. The random jitter spreads the
+ * retries of the concurrent updates of the same row, so they do not conflict again.
+ */
+@Slf4j
+public class OptimisticLockRetryInterceptor implements MethodInterceptor {
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+    private final List<OptimisticLockRetryListener> listeners;
+    private final Map<Method, Integer> attempts = new ConcurrentHashMap<>();
+
+    public OptimisticLockRetryInterceptor(int maxAttempts, Duration initialBackoff, Duration maxBackoff, double multiplier,
+                                          List<OptimisticLockRetryListener> listeners) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.multiplier = Math.max(1.0, multiplier);
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // the entities of the running transaction are stale, only the caller that started it can retry
+            return invocation.proceed();
+        }
+
+        String method = name(invocation);
+        int max = maxAttempts(invocation);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // every attempt proceeds on a clone, which runs the rest of the advice chain again, including the transaction advice
+                return invocation instanceof ProxyMethodInvocation proxyInvocation
+                        ? proxyInvocation.invocableClone().proceed()
+                        : invocation.proceed();
+            } catch (Exception e) {
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                int failed = attempt;
+                boolean retry = attempt < max;
+                listeners.forEach(listener -> listener.conflict(method, failed, retry));
+                if (!retry) {
+                    log.warn("Optimistic lock conflict in {}, giving up after {} attempts", method, attempt);
+                    throw e;
+                }
+                long sleep = backoff(attempt);
+                log.debug("Optimistic lock conflict in {}, attempt {} of {}, retrying in {}ms", method, attempt, max, sleep);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(sleep);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * A random time between 0 and the exponential backoff of the attempt, in milliseconds.
+     */
+    long backoff(int attempt) {
+        double backoff = initialBackoff.toMillis() * Math.pow(multiplier, attempt - 1);
+        long cap = (long) Math.min(backoff, maxBackoff.toMillis());
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int maxAttempts(MethodInvocation invocation) {
+        return attempts.computeIfAbsent(invocation.getMethod(), method -> {
+            Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+            Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+            RetryOnOptimisticLock annotation = AnnotatedElementUtils.findMergedAnnotation(specific, RetryOnOptimisticLock.class);
+            if (annotation == null) {
+                annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, RetryOnOptimisticLock.class);
+            }
+            return annotation != null && annotation.maxAttempts() > 0 ? annotation.maxAttempts() : maxAttempts;
+        });
+    }
+
+    private static String name(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : invocation.getMethod().getDeclaringClass();
+        return targetClass.getSimpleName() + "." + invocation.getMethod().getName();
+    }
+}
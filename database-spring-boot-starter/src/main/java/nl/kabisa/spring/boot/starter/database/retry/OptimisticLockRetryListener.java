@@ -0,0 +1,16 @@
+package nl.kabisa.spring.boot.starter.database.retry;
+
+/**
+ * Listener for the optimistic lock conflicts handled by the {@link OptimisticLockRetryInterceptor}.
+ */
+public interface OptimisticLockRetryListener {
+
+    /**
+     * Called when an attempt failed on an optimistic lock conflict.
+     *
+     * @param method  the retried method, as ClassName.methodName
+     * @param attempt the failed attempt, starting at 1
+     * @param retried true if the method is called again, false if the attempts are exhausted
+     */
+    void conflict(String method, int attempt, boolean retried);
+}
@@ -0,0 +1,28 @@
+package nl.kabisa.spring.boot.starter.database.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs the annotated method, or all public methods of the annotated class, when it fails on an optimistic lock
+ * conflict. The retry wraps the transaction of the method, so every attempt reads the entities again in a new
+ * transaction. Put the annotation on the method that starts the transaction: a method called within an existing
+ * transaction is not retried, the conflict is passed to the caller.
+ * <p>
+ * When all attempts fail the last conflict is thrown, the service starter maps it to a 409 Problem.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface RetryOnOptimisticLock {
+
+    /**
+     * The maximum number of attempts, including the first call. 0 uses service.starter.database.retry.max-attempts.
+     */
+    int maxAttempts() default 0;
+}
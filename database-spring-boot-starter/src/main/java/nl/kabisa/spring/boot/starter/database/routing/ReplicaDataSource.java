@@ -0,0 +1,90 @@
+package nl.kabisa.spring.boot.starter.database.routing;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A data source that balances connections over a Hikari pool per replica.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    public enum LoadBalancing {
+        /**
+         * Take the replicas in turn.
+         */
+        ROUND_ROBIN,
+        /**
+         * Take the replica with the fewest active connections and waiting threads.
+         */
+        LEAST_BUSY
+    }
+
+    private final List<HikariDataSource> replicas;
+    private final LoadBalancing loadBalancing;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Creates a pool per replica url with the configuration of the primary pool.
+     */
+    ReplicaDataSource(HikariConfig primary, List<String> urls, String username, String password, LoadBalancing loadBalancing) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setJdbcUrl(urls.get(i));
+            config.setPoolName((primary.getPoolName() != null ? primary.getPoolName() : "HikariPool") + "-replica-" + (i + 1));
+            config.setReadOnly(true);
+            if (username != null) {
+                config.setUsername(username);
+            }
+            if (password != null) {
+                config.setPassword(password);
+            }
+            pools.add(new HikariDataSource(config));
+        }
+        this.replicas = Collections.unmodifiableList(pools);
+        this.loadBalancing = loadBalancing;
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return next().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return next().getConnection(username, password);
+    }
+
+    HikariDataSource next() {
+        if (loadBalancing == LoadBalancing.LEAST_BUSY) {
+            return replicas.stream().min(Comparator.comparingInt(ReplicaDataSource::load)).orElseThrow();
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    private static int load(HikariDataSource replica) {
+        HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+        return pool != null ? pool.getActiveConnections() + pool.getThreadsAwaitingConnection() : 0;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
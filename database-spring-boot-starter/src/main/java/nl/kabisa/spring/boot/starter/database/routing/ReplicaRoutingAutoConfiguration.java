@@ -0,0 +1,97 @@
+package nl.kabisa.spring.boot.starter.database.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This configuration class routes read-only transactions to a pool of database replicas, all other work goes to
+ * the primary database configured with 'spring.datasource.*'.
+ * <p>
+ * The application data source is a {@link LazyConnectionDataSourceProxy}, it fetches the physical connection on
+ * the first statement. At that moment the transaction manager marked the connection read-only for a
+ * <code>@Transactional(readOnly = true)</code> method, and the connection is taken from the replicas. The
+ * read-only Spring Data repository methods (findAll, findById) are routed to the replicas as well.
+ * <p>
+ * For read-only transactions Spring sets the Hibernate session to read-only with flush mode MANUAL, Hibernate
+ * neither keeps snapshots of the loaded entities for dirty checking nor flushes the session.
+ * <p>
+ * The replica pools copy the configuration of the primary Hikari pool. You can enable this configuration with:
+ * <p>
+ * service.starter.database.replica.enabled=true
+ */
+@Data
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConfigurationProperties("service.starter.database.replica")
+@EnableConfigurationProperties(DataSourceProperties.class)
+@ConditionalOnClass({HikariDataSource.class, LazyConnectionDataSourceProxy.class})
+@ConditionalOnProperty(prefix = "service.starter.database.replica", name = "enabled", havingValue = "true", matchIfMissing = false)
+@Slf4j
+class ReplicaRoutingAutoConfiguration {
+
+    /**
+     * Is routing to replicas enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * The JDBC urls of the replicas.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * The login username of the replicas. (default is the username of the primary)
+     */
+    private String username;
+
+    /**
+     * The login password of the replicas. (default is the password of the primary)
+     */
+    private String password;
+
+    /**
+     * How a replica is chosen for a connection. (default is round-robin)
+     */
+    private ReplicaDataSource.LoadBalancing loadBalancing = ReplicaDataSource.LoadBalancing.ROUND_ROBIN;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("No replica urls configured, set service.starter.database.replica.urls");
+        }
+        log.info("Configuring ReplicaDataSource, {} replicas, load balancing: {}", urls.size(), loadBalancing);
+        return new ReplicaDataSource(primaryDataSource, urls, username, password, loadBalancing);
+    }
+
+    @Bean
+    @Primary
+    LazyConnectionDataSourceProxy dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,160 @@
+package nl.kabisa.spring.boot.starter.database.statistics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * This configuration class enables the Hibernate statistics and samples them every interval, see
+ * {@link HibernateStatisticsSampler}. The query plan cache size is configurable, a warning is logged when the plan
+ * cache hit ratio of a sample is below the threshold.
+ * <p>
+ * The statistics are available in the actuator endpoint 'hibernate', and with Micrometer in the metrics
+ * 'hibernate.*'. The statistics are sampled when the application has one EntityManagerFactory. Settings made with
+ * 'spring.jpa.properties.hibernate.*' take precedence. You can enable this configuration with:
+ * <p>
+ * service.starter.database.statistics.enabled=true
+ */
+@Data
+@AutoConfiguration(after = HibernateJpaAutoConfiguration.class)
+@ConfigurationProperties("service.starter.database.statistics")
+@ConditionalOnClass({SessionFactory.class, HibernatePropertiesCustomizer.class})
+@ConditionalOnProperty(prefix = "service.starter.database.statistics", name = "enabled", havingValue = "true", matchIfMissing = false)
+@Slf4j
+class HibernateStatisticsAutoConfiguration {
+
+    /**
+     * Are the Hibernate statistics enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * The interval between two samples of the statistics. (default is 1m)
+     */
+    private Duration samplingInterval = Duration.ofMinutes(1);
+
+    /**
+     * The maximum number of query plans in the plan cache (hibernate.query.plan_cache_max_size). (default is 2048)
+     */
+    private int queryPlanCacheMaxSize = 2048;
+
+    /**
+     * The maximum number of queries with their own statistics (hibernate.statistics.query_max_size). (default is 500)
+     */
+    private int queryStatisticsMaxSize = 500;
+
+    /**
+     * A sample with a lower query plan cache hit ratio logs a warning. (default is 0.9)
+     */
+    private double planCacheHitRatioThreshold = 0.9;
+
+    /**
+     * The minimum number of query plan cache requests in a sample before the hit ratio is checked. (default is 100)
+     */
+    private long minPlanCacheRequests = 100;
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateStatisticsPropertiesCustomizer() {
+        log.info("Configuring Hibernate statistics, sampling interval: {}, query plan cache size: {}", samplingInterval, queryPlanCacheMaxSize);
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, "true");
+            properties.putIfAbsent(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, String.valueOf(queryPlanCacheMaxSize));
+            properties.putIfAbsent(AvailableSettings.QUERY_STATISTICS_MAX_SIZE, String.valueOf(queryStatisticsMaxSize));
+        };
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnSingleCandidate(EntityManagerFactory.class)
+    HibernateStatisticsSampler hibernateStatisticsSampler(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return new HibernateStatisticsSampler(statistics, samplingInterval, planCacheHitRatioThreshold, minPlanCacheRequests);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    @ConditionalOnSingleCandidate(EntityManagerFactory.class)
+    static class HibernateStatisticsEndpointConfiguration {
+
+        @Bean
+        HibernateStatisticsEndpoint hibernateStatisticsEndpoint(HibernateStatisticsSampler sampler) {
+            return new HibernateStatisticsEndpoint(sampler);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnSingleCandidate(EntityManagerFactory.class)
+    static class HibernateStatisticsMetricsConfiguration {
+
+        /**
+         * The hit ratio of the last sample, the counters are published by {@link HibernateCounterMetricsConfiguration}
+         * or by the HibernateMetrics of hibernate-micrometer.
+         */
+        @Bean
+        MeterBinder hibernateStatisticsMetrics(HibernateStatisticsSampler sampler) {
+            return registry -> Gauge.builder("hibernate.query.plan.cache.hit.ratio", sampler, s -> s.getLastSample() == null
+                            || s.getLastSample().queryPlanCacheHitRatio() == null ? Double.NaN : s.getLastSample().queryPlanCacheHitRatio())
+                    .description("Query plan cache hit ratio of the last sample").register(registry);
+        }
+    }
+
+    /**
+     * The counters read the Hibernate statistics when the registry publishes. With hibernate-micrometer on the
+     * classpath Spring Boot binds its HibernateMetrics, with the same names, and these are not registered.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnMissingClass("org.hibernate.stat.HibernateMetrics")
+    @ConditionalOnSingleCandidate(EntityManagerFactory.class)
+    static class HibernateCounterMetricsConfiguration {
+
+        @Bean
+        MeterBinder hibernateCounterMetrics(HibernateStatisticsSampler sampler) {
+            Statistics statistics = sampler.getStatistics();
+            return registry -> {
+                counter(registry, "hibernate.sessions.open", "Sessions opened", statistics, Statistics::getSessionOpenCount);
+                counter(registry, "hibernate.transactions", "Transactions", statistics, Statistics::getTransactionCount);
+                counter(registry, "hibernate.flushes", "Flushes of the persistence context", statistics, Statistics::getFlushCount);
+                counter(registry, "hibernate.entities.loads", "Entities loaded", statistics, Statistics::getEntityLoadCount);
+                counter(registry, "hibernate.entities.fetches", "Entities fetched by a separate select", statistics, Statistics::getEntityFetchCount);
+                counter(registry, "hibernate.collections.fetches", "Collections fetched by a separate select", statistics, Statistics::getCollectionFetchCount);
+                counter(registry, "hibernate.query.executions", "Queries executed", statistics, Statistics::getQueryExecutionCount);
+                counter(registry, "hibernate.statements.prepared", "JDBC statements prepared", statistics, Statistics::getPrepareStatementCount);
+                FunctionCounter.builder("hibernate.query.plan.cache", statistics, Statistics::getQueryPlanCacheHitCount)
+                        .description("Query plan cache requests").tag("result", "hit").register(registry);
+                FunctionCounter.builder("hibernate.query.plan.cache", statistics, Statistics::getQueryPlanCacheMissCount)
+                        .description("Query plan cache requests").tag("result", "miss").register(registry);
+                FunctionCounter.builder("hibernate.second.level.cache", statistics, Statistics::getSecondLevelCacheHitCount)
+                        .description("Second-level cache requests").tag("result", "hit").register(registry);
+                FunctionCounter.builder("hibernate.second.level.cache", statistics, Statistics::getSecondLevelCacheMissCount)
+                        .description("Second-level cache requests").tag("result", "miss").register(registry);
+            };
+        }
+
+        private static void counter(MeterRegistry registry, String name, String description, Statistics statistics,
+                                    ToDoubleFunction<Statistics> count) {
+            FunctionCounter.builder(name, statistics, count).description(description).register(registry);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package nl.kabisa.spring.boot.starter.database.statistics;
+
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint 'hibernate' with the Hibernate statistics since startup, the last sample and the queries with the
+ * highest total execution time. The statistics are not reset, the Micrometer counters read them and must only
+ * increase.
+ */
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private static final int MAX_QUERIES = 20;
+
+    private final HibernateStatisticsSampler sampler;
+
+    public HibernateStatisticsEndpoint(HibernateStatisticsSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hibernate() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totals", sampler.totals());
+        result.put("lastSample", sampler.getLastSample());
+        result.put("queries", queries(sampler.getStatistics()));
+        return result;
+    }
+
+    private static List<Map<String, Object>> queries(Statistics statistics) {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> entry) -> entry.getValue().getExecutionTotalTime()).reversed())
+                .limit(MAX_QUERIES)
+                .map(entry -> {
+                    QueryStatistics stats = entry.getValue();
+                    Map<String, Object> query = new LinkedHashMap<>();
+                    query.put("query", entry.getKey());
+                    query.put("executions", stats.getExecutionCount());
+                    query.put("rows", stats.getExecutionRowCount());
+                    query.put("totalTimeMs", stats.getExecutionTotalTime());
+                    query.put("maxTimeMs", stats.getExecutionMaxTime());
+                    query.put("planCacheHits", stats.getPlanCacheHitCount());
+                    query.put("planCacheMisses", stats.getPlanCacheMissCount());
+                    return query;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,142 @@
+package nl.kabisa.spring.boot.starter.database.statistics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.stat.Statistics;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the Hibernate statistics every interval: the sample holds the increase of the counters since the previous
+ * sample, so the endpoint shows the recent activity next to the totals since startup. Reading the counters is cheap,
+ * the statistics are only collected once per interval and not per session.
+ * <p>
+ * A warning is logged when the query plan cache hit ratio of a sample is below the threshold, which means queries
+ * are parsed and translated again instead of taken from the plan cache. Dynamic JPQL, with literals or a varying
+ * number of IN parameters in the query string, or a plan cache that is too small cause this.
+ */
+@Slf4j
+public class HibernateStatisticsSampler implements Closeable {
+
+    /**
+     * The counters of the Hibernate statistics, over the interval of a sample or since startup.
+     */
+    public record Sample(Instant time, Duration interval, long sessions, long transactions, long flushes,
+                         long entityLoads, long entityFetches, long collectionLoads, long collectionFetches,
+                         long queryExecutions, long queryPlanCacheHits, long queryPlanCacheMisses,
+                         long secondLevelCacheHits, long secondLevelCacheMisses, long secondLevelCachePuts,
+                         long preparedStatements, long optimisticFailures, Double queryPlanCacheHitRatio) {
+
+        Sample minus(Sample previous) {
+            long hits = queryPlanCacheHits - previous.queryPlanCacheHits;
+            long misses = queryPlanCacheMisses - previous.queryPlanCacheMisses;
+            return new Sample(time, Duration.between(previous.time, time), sessions - previous.sessions,
+                    transactions - previous.transactions, flushes - previous.flushes,
+                    entityLoads - previous.entityLoads, entityFetches - previous.entityFetches,
+                    collectionLoads - previous.collectionLoads, collectionFetches - previous.collectionFetches,
+                    queryExecutions - previous.queryExecutions, hits, misses,
+                    secondLevelCacheHits - previous.secondLevelCacheHits, secondLevelCacheMisses - previous.secondLevelCacheMisses,
+                    secondLevelCachePuts - previous.secondLevelCachePuts, preparedStatements - previous.preparedStatements,
+                    optimisticFailures - previous.optimisticFailures, ratio(hits, misses));
+        }
+    }
+
+    private final Statistics statistics;
+    private final Duration interval;
+    private final double planCacheHitRatioThreshold;
+    private final long minPlanCacheRequests;
+    private final Instant started = Instant.now();
+    private ScheduledExecutorService executor;
+    private volatile Sample previous;
+    private volatile Sample lastSample;
+
+    public HibernateStatisticsSampler(Statistics statistics, Duration interval, double planCacheHitRatioThreshold, long minPlanCacheRequests) {
+        this.statistics = statistics;
+        this.interval = interval;
+        this.planCacheHitRatioThreshold = planCacheHitRatioThreshold;
+        this.minPlanCacheRequests = minPlanCacheRequests;
+        this.previous = totals();
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * The counters since startup.
+     */
+    public Sample totals() {
+        Instant now = Instant.now();
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        return new Sample(now, Duration.between(started, now), statistics.getSessionOpenCount(),
+                statistics.getTransactionCount(), statistics.getFlushCount(),
+                statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                statistics.getCollectionLoadCount(), statistics.getCollectionFetchCount(),
+                statistics.getQueryExecutionCount(), hits, misses,
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(), statistics.getPrepareStatementCount(),
+                statistics.getOptimisticFailureCount(), ratio(hits, misses));
+    }
+
+    /**
+     * The counters of the last sample, null before the first sample.
+     */
+    public Sample getLastSample() {
+        return lastSample;
+    }
+
+    /**
+     * Takes a sample, the increase of the counters since the previous sample.
+     */
+    public synchronized Sample sample() {
+        Sample current = totals();
+        Sample sample = current.minus(previous);
+        previous = current;
+        lastSample = sample;
+
+        long requests = sample.queryPlanCacheHits() + sample.queryPlanCacheMisses();
+        if (requests >= minPlanCacheRequests && sample.queryPlanCacheHitRatio() < planCacheHitRatioThreshold) {
+            log.warn("Hibernate query plan cache hit ratio {}% is below {}% ({} of {} queries in {}), check for dynamic JPQL "
+                            + "or increase service.starter.database.statistics.query-plan-cache-max-size",
+                    Math.round(sample.queryPlanCacheHitRatio() * 100), Math.round(planCacheHitRatioThreshold * 100),
+                    sample.queryPlanCacheHits(), requests, sample.interval());
+        }
+        return sample;
+    }
+
+    public synchronized void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hibernate-statistics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(this::sampleQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            log.warn("Sampling the Hibernate statistics failed", e);
+        }
+    }
+
+    private static Double ratio(long hits, long misses) {
+        return hits + misses == 0 ? null : (double) hits / (hits + misses);
+    }
+}
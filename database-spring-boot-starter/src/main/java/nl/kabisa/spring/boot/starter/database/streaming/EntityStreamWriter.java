@@ -0,0 +1,155 @@
+package nl.kabisa.spring.boot.starter.database.streaming;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.Getter;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes the rows of a repository method returning a {@link Stream} incrementally to the HTTP response, as a JSON
+ * array or as newline delimited JSON:
+ * <pre>
+ * &#64;GetMapping("/quotes/export")
+ * public ResponseEntity&lt;StreamingResponseBody&gt; export() {
+ *     return entityStreamWriter.response(quoteRepository::streamAllBy, EntityStreamWriter.Format.NDJSON);
+ * }
+ * </pre>
+ * The stream is opened in a read-only transaction when the response is written. The persistence context is cleared
+ * every 'clear interval' rows, so the memory use does not depend on the number of rows.
+ * <p>
+ * The rows are fetched from the database in chunks of the fetch size, when the query has the fetch size hint. Add it
+ * to the stream method of the repository, or create the query with {@link #query(Function)}:
+ * <pre>
+ * &#64;QueryHints(&#64;QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+ * Stream&lt;QuoteEntity&gt; streamAllBy();
+ * </pre>
+ */
+public class EntityStreamWriter {
+
+    public enum Format {
+        JSON_ARRAY(MediaType.APPLICATION_JSON),
+        NDJSON(MediaType.APPLICATION_NDJSON);
+
+        @Getter
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final int fetchSize;
+    private final int clearInterval;
+
+    /**
+     * @param transactionTemplate a read-only transaction template
+     * @param entityManager       the shared entity manager of the transaction
+     * @param objectMapper        the object mapper that writes the rows
+     * @param fetchSize           the number of rows fetched per round-trip by the queries of {@link #query(Function)}
+     * @param clearInterval       the number of rows after which the persistence context is cleared
+     */
+    public EntityStreamWriter(TransactionTemplate transactionTemplate, EntityManager entityManager, ObjectMapper objectMapper,
+                              int fetchSize, int clearInterval) {
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // flushing after each row would send a network packet per row
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * Returns the rows of a query created with the entity manager of the transaction, fetched in chunks of the fetch
+     * size:
+     * <pre>
+     * entityStreamWriter.response(entityStreamWriter.query(entityManager -&gt;
+     *         entityManager.createQuery("select q from QuoteEntity q", QuoteEntity.class)), EntityStreamWriter.Format.NDJSON);
+     * </pre>
+     */
+    public <T> Supplier<Stream<T>> query(Function<EntityManager, TypedQuery<T>> query) {
+        return () -> query.apply(entityManager).setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize).getResultStream();
+    }
+
+    /**
+     * Returns a response with the content type of the format and a body that writes the rows.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> response(Supplier<Stream<T>> rows, Format format) {
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(stream(rows, format));
+    }
+
+    /**
+     * Returns a body that writes the rows, the supplier is called when the response is written.
+     */
+    public <T> StreamingResponseBody stream(Supplier<Stream<T>> rows, Format format) {
+        return outputStream -> write(rows, format, outputStream);
+    }
+
+    /**
+     * Writes the rows to the output stream, in a read-only transaction.
+     *
+     * @return the number of written rows
+     */
+    public <T> long write(Supplier<Stream<T>> rows, Format format, OutputStream outputStream) throws IOException {
+        try {
+            Long count = transactionTemplate.execute(status -> {
+                try (Stream<T> stream = rows.get();
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+                    // the generator must not close the response, NDJSON rows are separated by a newline only
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setRootValueSeparator(null);
+                    return write(stream.iterator(), format, generator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return count != null ? count : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <T> long write(Iterator<T> rows, Format format, JsonGenerator generator) throws IOException {
+        long count = 0;
+        if (format == Format.JSON_ARRAY) {
+            generator.writeStartArray();
+        }
+        while (rows.hasNext()) {
+            objectWriter.writeValue(generator, rows.next());
+            if (format == Format.NDJSON) {
+                generator.writeRaw('\n');
+            }
+            if (++count % clearInterval == 0) {
+                // detach the written entities, and send what is written so far
+                entityManager.clear();
+                generator.flush();
+            }
+        }
+        if (format == Format.JSON_ARRAY) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+        return count;
+    }
+}
@@ -0,0 +1,65 @@
+package nl.kabisa.spring.boot.starter.database.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Data;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * This configuration class provides an {@link EntityStreamWriter} to write a stream of entities to the HTTP response.
+ * The queries of the writer fetch the rows from the database in chunks of the fetch size instead of all at once, other
+ * queries keep the fetch size of the JDBC driver. It is only applied to an application with JPA and one transaction
+ * manager.
+ * <p>
+ * You can disable this configuration with:
+ * <p>
+ * service.starter.database.streaming.enabled=false
+ */
+@Data
+@AutoConfiguration(after = HibernateJpaAutoConfiguration.class)
+@ConfigurationProperties("service.starter.database.streaming")
+@ConditionalOnClass({HibernateHints.class, StreamingResponseBody.class, ObjectMapper.class})
+@ConditionalOnBean(EntityManagerFactory.class)
+@ConditionalOnSingleCandidate(PlatformTransactionManager.class)
+@ConditionalOnProperty(prefix = "service.starter.database.streaming", name = "enabled", havingValue = "true", matchIfMissing = true)
+class EntityStreamingAutoConfiguration {
+
+    /**
+     * Is the streaming support enabled? (default is true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * The number of rows fetched per round-trip by the queries of the writer (org.hibernate.fetchSize). (default is 500)
+     */
+    private int fetchSize = 500;
+
+    /**
+     * The number of streamed rows after which the persistence context is cleared. (default is 500)
+     */
+    private int clearInterval = 500;
+
+    @Bean
+    @ConditionalOnMissingBean
+    EntityStreamWriter entityStreamWriter(PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                                          ObjectProvider<ObjectMapper> objectMapper) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return new EntityStreamWriter(transactionTemplate, SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                objectMapper.getIfAvailable(() -> new ObjectMapper().findAndRegisterModules()), fetchSize, clearInterval);
+    }
+}
@@ -1,12 +1,14 @@
 package nl.kabisa.spring.boot.starter.database;
 
+import nl.kabisa.spring.boot.starter.database.repositories.QuoteRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 /**
- * Spring boot main application
+ * Spring boot main application. The configurations of the starter are not scanned, like in a service they are only
+ * applied as auto configuration.
  */
-@SpringBootApplication
+@SpringBootApplication(scanBasePackageClasses = QuoteRepository.class)
 public class Application {
 
 	public static void main(String[] args) {
@@ -0,0 +1,68 @@
+package nl.kabisa.spring.boot.starter.database;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test data source that counts the statement executions, every execute call is a round-trip to the database.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+	private final AtomicInteger executions = new AtomicInteger();
+
+	public StatementCountingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	public int getExecutions() {
+		return executions.get();
+	}
+
+	public void reset() {
+		executions.set(0);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return proxy(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return proxy(super.getConnection(username, password));
+	}
+
+	private Connection proxy(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+			Object result = invoke(connection, method, args);
+			if (result instanceof Statement statement) {
+				return proxy(statement);
+			}
+			return result;
+		});
+	}
+
+	private Object proxy(Statement statement) {
+		return Proxy.newProxyInstance(getClass().getClassLoader(), statement.getClass().getInterfaces(), (proxy, method, args) -> {
+			if (method.getName().startsWith("execute")) {
+				executions.incrementAndGet();
+			}
+			return invoke(statement, method, args);
+		});
+	}
+
+	private Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+}
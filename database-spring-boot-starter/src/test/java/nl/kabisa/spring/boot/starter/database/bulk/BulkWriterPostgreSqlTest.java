@@ -0,0 +1,76 @@
+package nl.kabisa.spring.boot.starter.database.bulk;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test to check that the {@link BulkWriter} writes the rows with COPY on PostgreSQL, with the values in the types of
+ * the columns. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BulkWriterPostgreSqlTest {
+
+	private static final List<String> COLUMNS = List.of("id", "text", "unit", "day", "moment", "tags", "data", "active", "uuid");
+
+	@Container
+	private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	private static BulkWriter bulkWriter;
+	private static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void setUp() {
+		PGSimpleDataSource dataSource = new PGSimpleDataSource();
+		dataSource.setUrl(POSTGRES.getJdbcUrl());
+		dataSource.setUser(POSTGRES.getUsername());
+		dataSource.setPassword(POSTGRES.getPassword());
+		// a small buffer, so the rows are sent in many COPY messages
+		bulkWriter = new BulkWriter(dataSource, 1024, 100, 10);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE bulk (id BIGINT PRIMARY KEY, text VARCHAR(100), unit VARCHAR(20), day DATE, "
+				+ "moment TIMESTAMP WITH TIME ZONE, tags TEXT[], data BYTEA, active BOOLEAN, uuid UUID)");
+	}
+
+	@Test
+	void testCopy() throws SQLException {
+		OffsetDateTime moment = OffsetDateTime.of(2024, 1, 2, 10, 15, 30, 0, ZoneOffset.ofHours(1));
+		UUID uuid = UUID.randomUUID();
+
+		long count = bulkWriter.write("public.bulk", COLUMNS, IntStream.range(0, 1234).boxed(), i -> new Object[]{
+				(long) i, i == 0 ? "say \"hi\",\nbye" : "text " + i, ChronoUnit.SECONDS, LocalDate.of(2024, 1, 2), moment,
+				new String[]{"a", "b \"c\"", null}, new byte[]{1, (byte) 0xff}, i % 2 == 0, i == 0 ? uuid : null});
+
+		assertEquals(1234, count);
+		assertEquals(1234, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bulk", Integer.class));
+		Map<String, Object> row = jdbcTemplate.queryForMap("SELECT text, unit, day, moment, array_to_string(tags, '|', 'NULL') AS tags, "
+				+ "data, active, uuid FROM bulk WHERE id = 0");
+		assertEquals("say \"hi\",\nbye", row.get("text"));
+		assertEquals("SECONDS", row.get("unit"));
+		assertEquals(java.sql.Date.valueOf("2024-01-02"), row.get("day"));
+		assertEquals(moment.toInstant(), ((java.sql.Timestamp) row.get("moment")).toInstant());
+		assertEquals("a|b \"c\"|NULL", row.get("tags"));
+		assertArrayEquals(new byte[]{1, (byte) 0xff}, (byte[]) row.get("data"));
+		assertEquals(true, row.get("active"));
+		assertEquals(uuid, row.get("uuid"));
+		assertNull(jdbcTemplate.queryForObject("SELECT uuid FROM bulk WHERE id = 1", UUID.class));
+	}
+}
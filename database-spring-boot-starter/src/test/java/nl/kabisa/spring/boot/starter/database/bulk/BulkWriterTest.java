@@ -0,0 +1,73 @@
+package nl.kabisa.spring.boot.starter.database.bulk;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that the {@link BulkWriter} writes all rows of a stream, with the multi-row INSERT fallback on H2.
+ */
+@SpringBootTest(properties = "service.starter.database.bulk.enabled=true")
+class BulkWriterTest {
+
+	private static final List<String> COLUMNS = List.of("ID", "VERSION", "TEXT", "AUTHOR", "CREATION_DATE", "ACTIVE");
+
+	@Autowired
+	private BulkWriter bulkWriter;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void testWrite() throws SQLException {
+		// not a multiple of the rows per statement, so the last rows are written with a shorter statement
+		long count = bulkWriter.write("QUOTE", COLUMNS, IntStream.range(0, 1234).boxed(),
+				i -> new Object[]{1_000_000L + i, 0L, "bulk " + i, "bulk", LocalDate.of(2024, 1, 1), true});
+
+		assertEquals(1234, count);
+		assertEquals(1234, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM QUOTE WHERE AUTHOR = 'bulk'", Integer.class));
+		assertEquals("bulk 1233", jdbcTemplate.queryForObject("SELECT TEXT FROM QUOTE WHERE ID = 1001233", String.class));
+	}
+
+	@Test
+	void testInvalidIdentifiers() {
+		assertThrows(IllegalArgumentException.class, () -> BulkWriter.validate("QUOTE; DROP TABLE QUOTE", COLUMNS));
+		assertThrows(IllegalArgumentException.class, () -> BulkWriter.validate("QUOTE", List.of("TEXT", "\"AUTHOR\"")));
+		assertThrows(IllegalArgumentException.class, () -> bulkWriter.write("QUOTE", List.of("ID"), List.of(1).iterator(), i -> new Object[]{i, 2}));
+		BulkWriter.validate("public.QUOTE", COLUMNS);
+	}
+
+	@Test
+	void testCsv() {
+		StringBuilder line = new StringBuilder();
+		BulkWriter.csv(line, new Object[]{1L, null, "say \"hi\", bye", LocalDate.of(2024, 1, 2), true, new byte[]{1, (byte) 0xff}});
+		assertEquals("\"1\",,\"say \"\"hi\"\", bye\",\"2024-01-02\",\"true\",\"\\x01ff\"\n", line.toString());
+	}
+
+	@Test
+	void testText() {
+		assertEquals("12.50", BulkWriter.text(new BigDecimal("1.25E1").setScale(2)));
+		assertEquals("SECONDS", BulkWriter.text(ChronoUnit.SECONDS));
+		assertEquals("2024-01-02T10:15:30+01:00", BulkWriter.text(ZonedDateTime.of(2024, 1, 2, 10, 15, 30, 0, ZoneId.of("Europe/Amsterdam"))));
+		assertEquals("2024-01-02", BulkWriter.text(java.sql.Date.valueOf("2024-01-02")));
+		// a timestamp is local time in the default time zone, the offset keeps it for a timestamptz column
+		assertTrue(BulkWriter.text(Timestamp.valueOf("2024-01-02 10:15:30")).startsWith("2024-01-02T10:15:30"));
+		assertEquals("{\"a\",\"say \\\"hi\\\"\",NULL}", BulkWriter.text(new String[]{"a", "say \"hi\"", null}));
+		assertEquals("{{\"1\",\"2\"},{\"3\",\"4\"}}", BulkWriter.text(new int[][]{{1, 2}, {3, 4}}));
+		assertThrows(IllegalArgumentException.class, () -> BulkWriter.text(new Object()));
+	}
+}
@@ -0,0 +1,93 @@
+package nl.kabisa.spring.boot.starter.database.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import nl.kabisa.spring.boot.starter.database.StatementCountingDataSource;
+import nl.kabisa.spring.boot.starter.database.entity.QuoteEntity;
+import nl.kabisa.spring.boot.starter.database.repositories.QuoteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that cacheable entities are read from the second-level cache instead of the database.
+ */
+@SpringBootTest(properties = {
+		"service.starter.database.cache.enabled=true",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+		"service.starter.database.cache.regions[nl.kabisa.spring.boot.starter.database.entity.QuoteEntity].maximum-size=100"
+})
+class HibernateCacheAutoConfigurationTest {
+
+	@Autowired
+	private QuoteRepository quoteRepository;
+	@Autowired
+	private StatementCountingDataSource dataSource;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private CacheManager hibernateCacheManager;
+
+	@Test
+	void testEntityIsReadFromCache() {
+		Long id = quoteRepository.save(QuoteEntity.builder().text("cached").author("cache").build()).getId();
+		entityManagerFactory.getCache().evictAll();
+
+		dataSource.reset();
+		assertEquals("cached", quoteRepository.findById(id).orElseThrow().getText());
+		assertEquals(1, dataSource.getExecutions());
+		assertTrue(entityManagerFactory.getCache().contains(QuoteEntity.class, id));
+
+		dataSource.reset();
+		assertEquals("cached", quoteRepository.findById(id).orElseThrow().getText());
+		assertEquals(0, dataSource.getExecutions());
+	}
+
+	@Test
+	void testRegionsAreBounded() {
+		CaffeineConfiguration<?, ?> quotes = configuration(QuoteEntity.class.getName());
+		assertEquals(OptionalLong.of(100), quotes.getMaximumSize());
+		assertTrue(quotes.getExpireAfterWrite().isPresent());
+
+		CaffeineConfiguration<?, ?> queries = configuration("default-query-results-region");
+		assertEquals(OptionalLong.of(10_000), queries.getMaximumSize());
+	}
+
+	private CaffeineConfiguration<Object, Object> configuration(String region) {
+		Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+		return cache.getConfiguration(caffeineConfigurationType());
+	}
+
+	/**
+	 * The class literal of CaffeineConfiguration is raw, the cast gives the type the JCache API expects.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Class<CaffeineConfiguration<Object, Object>> caffeineConfigurationType() {
+		return (Class<CaffeineConfiguration<Object, Object>>) (Class<?>) CaffeineConfiguration.class;
+	}
+
+	@TestConfiguration
+	static class StatementCountingConfiguration {
+
+		@Bean
+		static BeanPostProcessor statementCountingPostProcessor() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource && "dataSource".equals(beanName) ? new StatementCountingDataSource(dataSource) : bean;
+				}
+			};
+		}
+	}
+}
@@ -2,6 +2,8 @@ package nl.kabisa.spring.boot.starter.database.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
@@ -19,6 +21,8 @@ import java.time.LocalDate;
  */
 @Entity(name = "Quote")
 @Table(name = "QUOTE")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Builder
 @Getter
 @Setter
@@ -0,0 +1,126 @@
+package nl.kabisa.spring.boot.starter.database.flyway;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.AvailabilityState;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test to check that the {@link DeferredFlywayMigrationStrategy} skips an up-to-date schema, breaks the liveness
+ * state when the background migration fails and that the {@link DeferredFlywayApplicationAvailability} accepts traffic
+ * whether the migration finishes before or after the application started.
+ */
+class DeferredFlywayMigrationStrategyTest {
+
+	private final List<AvailabilityState> states = new CopyOnWriteArrayList<>();
+	private final DeferredFlywayMigrationStrategy strategy = strategy(true);
+
+	@Test
+	void testUpToDate() {
+		Flyway flyway = Flyway.configure().dataSource("jdbc:h2:mem:flyway;MODE=HSQLDB;DB_CLOSE_DELAY=-1", "sa", "").load();
+		assertFalse(strategy.isUpToDate(flyway.getConfiguration()));
+
+		flyway.migrate();
+		assertTrue(strategy.isUpToDate(flyway.getConfiguration()));
+
+		Flyway other = Flyway.configure().configuration(flyway.getConfiguration()).locations("classpath:db/migration", "classpath:db/extra").load();
+		assertFalse(strategy.isUpToDate(other.getConfiguration()));
+	}
+
+	@Test
+	void testChangedScriptIsNotUpToDate() throws SQLException {
+		Flyway flyway = Flyway.configure().dataSource("jdbc:h2:mem:flyway-changed;MODE=HSQLDB;DB_CLOSE_DELAY=-1", "sa", "").load();
+		flyway.migrate();
+		assertTrue(strategy.isUpToDate(flyway.getConfiguration()));
+
+		// the applied script was edited afterwards
+		try (Connection connection = flyway.getConfiguration().getDataSource().getConnection();
+			 Statement statement = connection.createStatement()) {
+			statement.executeUpdate("UPDATE \"flyway_schema_history\" SET \"checksum\" = \"checksum\" + 1 WHERE \"version\" = '1.0.1'");
+		}
+		assertFalse(strategy.isUpToDate(flyway.getConfiguration()));
+	}
+
+	@Test
+	void testFailedMigrationBreaksLiveness() throws InterruptedException {
+		DeferredFlywayMigrationStrategy strategy = strategy(false);
+		DeferredFlywayApplicationAvailability availability = new DeferredFlywayApplicationAvailability(strategy);
+		Flyway flyway = mock(Flyway.class);
+		doThrow(new IllegalStateException("migration failed")).when(flyway).migrate();
+
+		strategy.migrate(flyway);
+		awaitStates(1);
+		assertEquals(List.of(LivenessState.BROKEN), states);
+
+		availability.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+		assertEquals(ReadinessState.REFUSING_TRAFFIC, availability.getReadinessState());
+	}
+
+	@Test
+	void testMigrationFinishedBeforeStarted() throws InterruptedException {
+		DeferredFlywayMigrationStrategy strategy = strategy(false);
+		DeferredFlywayApplicationAvailability availability = new DeferredFlywayApplicationAvailability(strategy);
+		strategy.migrate(mock(Flyway.class));
+		awaitStates(1);
+		assertFalse(strategy.isMigrating());
+
+		// the ACCEPTING_TRAFFIC of the strategy is ignored until the application is started
+		availability.onApplicationEvent(new AvailabilityChangeEvent<>(strategy, ReadinessState.ACCEPTING_TRAFFIC));
+		assertEquals(ReadinessState.REFUSING_TRAFFIC, availability.getReadinessState());
+
+		availability.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+		assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+	}
+
+	@Test
+	void testMigrationFinishedAfterStarted() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		DeferredFlywayMigrationStrategy strategy = strategy(false);
+		DeferredFlywayApplicationAvailability availability = new DeferredFlywayApplicationAvailability(strategy);
+		Flyway flyway = mock(Flyway.class);
+		doAnswer(invocation -> {
+			release.await(10, TimeUnit.SECONDS);
+			return null;
+		}).when(flyway).migrate();
+
+		strategy.migrate(flyway);
+		assertTrue(strategy.isMigrating());
+		availability.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+		assertEquals(ReadinessState.REFUSING_TRAFFIC, availability.getReadinessState());
+
+		release.countDown();
+		awaitStates(1);
+		assertEquals(List.of(ReadinessState.ACCEPTING_TRAFFIC), states);
+		availability.onApplicationEvent(new AvailabilityChangeEvent<>(strategy, ReadinessState.ACCEPTING_TRAFFIC));
+		assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+	}
+
+	private DeferredFlywayMigrationStrategy strategy(boolean skipUnchanged) {
+		return new DeferredFlywayMigrationStrategy(event -> states.add(((AvailabilityChangeEvent<?>) event).getState()),
+				new DefaultResourceLoader(), skipUnchanged, true);
+	}
+
+	private void awaitStates(int count) throws InterruptedException {
+		for (int i = 0; i < 100 && states.size() < count; i++) {
+			Thread.sleep(50);
+		}
+	}
+}
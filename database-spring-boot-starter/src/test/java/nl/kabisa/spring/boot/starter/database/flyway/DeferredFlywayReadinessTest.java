@@ -0,0 +1,69 @@
+package nl.kabisa.spring.boot.starter.database.flyway;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that the application refuses traffic while a slow migration runs in the background, and accepts
+ * traffic when it finished.
+ */
+@SpringBootTest(properties = {
+		"service.starter.database.flyway.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:deferred-flyway;MODE=HSQLDB;DB_CLOSE_DELAY=-1"
+})
+class DeferredFlywayReadinessTest {
+
+	private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+	@Autowired
+	private ApplicationAvailability applicationAvailability;
+	@Autowired
+	private DeferredFlywayMigrationStrategy strategy;
+
+	@Test
+	void testReadinessRefusedWhileMigrating() throws InterruptedException {
+		assertTrue(strategy.isMigrating());
+		assertEquals(ReadinessState.REFUSING_TRAFFIC, applicationAvailability.getReadinessState());
+
+		RELEASE.countDown();
+		for (int i = 0; i < 100 && applicationAvailability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC; i++) {
+			Thread.sleep(50);
+		}
+		assertFalse(strategy.isMigrating());
+		assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+	}
+
+	@TestConfiguration
+	static class SlowMigrationConfiguration {
+
+		@Bean
+		V1_0_2__Slow slowMigration() {
+			return new V1_0_2__Slow();
+		}
+	}
+
+	/**
+	 * A Java migration that runs until the test releases it.
+	 */
+	static class V1_0_2__Slow extends BaseJavaMigration {
+
+		@Override
+		public void migrate(Context context) throws InterruptedException {
+			RELEASE.await(10, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package nl.kabisa.spring.boot.starter.database.hibernate;
+
+import nl.kabisa.spring.boot.starter.database.StatementCountingDataSource;
+import nl.kabisa.spring.boot.starter.database.entity.QuoteEntity;
+import nl.kabisa.spring.boot.starter.database.repositories.QuoteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that saving many entities results in batched statements instead of a round-trip per row.
+ */
+@SpringBootTest
+class HibernateBatchAutoConfigurationTest {
+
+	private static final int QUOTES = 200;
+
+	@Autowired
+	private QuoteRepository quoteRepository;
+	@Autowired
+	private StatementCountingDataSource dataSource;
+
+	@Test
+	void testSaveAllIsBatched() {
+		List<QuoteEntity> quotes = IntStream.range(0, QUOTES)
+				.mapToObj(i -> QuoteEntity.builder().text("quote " + i).author("author " + i).build())
+				.toList();
+
+		dataSource.reset();
+		quoteRepository.saveAll(quotes);
+
+		// 4 batches of 50 inserts and a sequence call per 50 ids instead of 200 inserts
+		int roundTrips = dataSource.getExecutions();
+		assertTrue(roundTrips <= 2 * QUOTES / 50 + 1, "round-trips: " + roundTrips);
+		assertEquals(QUOTES, quoteRepository.findAll().stream().filter(q -> q.getText().startsWith("quote ")).count());
+	}
+
+	@TestConfiguration
+	static class StatementCountingConfiguration {
+
+		@Bean
+		static BeanPostProcessor statementCountingPostProcessor() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource && "dataSource".equals(beanName) ? new StatementCountingDataSource(dataSource) : bean;
+				}
+			};
+		}
+	}
+}
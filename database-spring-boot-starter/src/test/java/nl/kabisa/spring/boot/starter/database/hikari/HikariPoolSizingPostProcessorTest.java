@@ -0,0 +1,74 @@
+package nl.kabisa.spring.boot.starter.database.hikari;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class HikariPoolSizingPostProcessorTest {
+
+	private final HikariPoolAutoConfiguration pool = new HikariPoolAutoConfiguration();
+
+	@Test
+	void testMaximumPoolSize() {
+		assertEquals(9, HikariPoolSizingPostProcessor.maximumPoolSize(4, pool));
+		assertEquals(2, HikariPoolSizingPostProcessor.maximumPoolSize(0, pool));
+
+		pool.setTargetConcurrency(6);
+		assertEquals(6, HikariPoolSizingPostProcessor.maximumPoolSize(4, pool));
+		assertEquals(3, HikariPoolSizingPostProcessor.maximumPoolSize(1, pool));
+	}
+
+	@Test
+	void testConfigure() {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl("jdbc:postgresql://localhost/quotes");
+		postProcessor(new MockEnvironment()).configure(dataSource, pool, 8);
+
+		assertEquals(17, dataSource.getMaximumPoolSize());
+		assertEquals(17, dataSource.getMinimumIdle());
+		assertEquals(5000, dataSource.getConnectionTimeout());
+		assertEquals("512", dataSource.getDataSourceProperties().getProperty("preparedStatementCacheQueries"));
+	}
+
+	@Test
+	void testConfiguredValuesTakePrecedence() {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl("jdbc:h2:mem:testdb");
+		dataSource.setMaximumPoolSize(3);
+		pool.setFixedSize(false);
+		postProcessor(new MockEnvironment().withProperty("spring.datasource.hikari.maximumPoolSize", "3")).configure(dataSource, pool, 8);
+
+		assertEquals(3, dataSource.getMaximumPoolSize());
+		assertEquals(2, dataSource.getMinimumIdle());
+		assertFalse(dataSource.getDataSourceProperties().containsKey("prepareThreshold"));
+	}
+
+	private HikariPoolSizingPostProcessor postProcessor(MockEnvironment environment) {
+		ObjectProvider<HikariPoolAutoConfiguration> provider = new ObjectProvider<>() {
+			@Override
+			public HikariPoolAutoConfiguration getObject(Object... args) {
+				return pool;
+			}
+
+			@Override
+			public HikariPoolAutoConfiguration getIfAvailable() {
+				return pool;
+			}
+
+			@Override
+			public HikariPoolAutoConfiguration getIfUnique() {
+				return pool;
+			}
+
+			@Override
+			public HikariPoolAutoConfiguration getObject() {
+				return pool;
+			}
+		};
+		return new HikariPoolSizingPostProcessor(provider, environment);
+	}
+}
@@ -0,0 +1,37 @@
+package nl.kabisa.spring.boot.starter.database.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Test to check that the {@link InstrumentedDataSource} wraps the Hikari data source after the batch configuration
+ * added reWriteBatchedInserts, also when the instrumentation is registered first.
+ */
+class InstrumentedDataSourceOrderTest {
+
+	@Test
+	void testInstrumentationWrapsConfiguredDataSource() throws ClassNotFoundException {
+		Class<?> batchConfiguration = Class.forName("nl.kabisa.spring.boot.starter.database.hibernate.HibernateBatchAutoConfiguration");
+
+		new ApplicationContextRunner()
+				.withPropertyValues("service.starter.database.jdbc.enabled=true")
+				.withUserConfiguration(JdbcInstrumentationAutoConfiguration.class, batchConfiguration)
+				.withBean("dataSource", HikariDataSource.class, () -> {
+					HikariDataSource dataSource = new HikariDataSource();
+					dataSource.setJdbcUrl("jdbc:postgresql://localhost/quotes");
+					return dataSource;
+				})
+				.run(context -> {
+					DataSource dataSource = context.getBean("dataSource", DataSource.class);
+					InstrumentedDataSource instrumented = assertInstanceOf(InstrumentedDataSource.class, dataSource);
+					HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, instrumented.getTargetDataSource());
+					assertEquals("true", hikari.getDataSourceProperties().getProperty("reWriteBatchedInserts"));
+				});
+	}
+}
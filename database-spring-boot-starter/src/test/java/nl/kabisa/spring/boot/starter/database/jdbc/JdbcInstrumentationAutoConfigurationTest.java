@@ -0,0 +1,83 @@
+package nl.kabisa.spring.boot.starter.database.jdbc;
+
+import nl.kabisa.spring.boot.starter.database.entity.QuoteEntity;
+import nl.kabisa.spring.boot.starter.database.repositories.QuoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that the {@link InstrumentedDataSource} records the statements and reports N+1 selects and slow queries.
+ */
+@SpringBootTest(properties = {
+		"service.starter.database.jdbc.enabled=true",
+		"service.starter.database.jdbc.repeated-statement-threshold=3"
+})
+class JdbcInstrumentationAutoConfigurationTest {
+
+	@Autowired
+	private DataSource dataSource;
+	@Autowired
+	private JdbcInstrumentation instrumentation;
+	@Autowired
+	private QuoteRepository quoteRepository;
+
+	@BeforeEach
+	void setUp() {
+		instrumentation.reset();
+	}
+
+	@Test
+	void testStatementStatistics() {
+		assertInstanceOf(InstrumentedDataSource.class, dataSource);
+		Long id = quoteRepository.save(QuoteEntity.builder().text("instrumented").author("jdbc").build()).getId();
+		quoteRepository.findById(id);
+
+		assertTrue(instrumentation.getStatements().stream()
+				.anyMatch(statement -> statement.sql().startsWith("insert into quote") && statement.count() == 1), instrumentation.getStatements().toString());
+	}
+
+	@Test
+	void testRepeatedStatementsInRequest() {
+		List<Long> ids = quoteRepository.saveAll(List.of(
+				QuoteEntity.builder().text("1").author("n+1").build(),
+				QuoteEntity.builder().text("2").author("n+1").build(),
+				QuoteEntity.builder().text("3").author("n+1").build(),
+				QuoteEntity.builder().text("4").author("n+1").build())).stream().map(QuoteEntity::getId).toList();
+
+		instrumentation.requestStarted("request-1", "GET /quotes");
+		ids.forEach(quoteRepository::findById);
+		instrumentation.requestFinished();
+
+		List<JdbcInstrumentation.Finding> findings = instrumentation.getFindings();
+		assertEquals(1, findings.size(), findings.toString());
+		JdbcInstrumentation.Finding finding = findings.get(0);
+		assertEquals(JdbcInstrumentation.FindingType.N_PLUS_ONE, finding.type());
+		assertEquals("request-1", finding.requestId());
+		assertEquals("GET /quotes", finding.uri());
+		assertEquals(4, finding.count());
+	}
+
+	@Test
+	void testSlowQuery() {
+		JdbcInstrumentation slow = new JdbcInstrumentation(java.time.Duration.ZERO, 10, 1, 10, List.of());
+		slow.requestStarted("request-2", "GET /slow");
+		slow.executed("select * from quote where id = 42 and author in ('a', 'b')", 0, 1_000_000);
+		slow.executed("select * from author", 1, 1_000_000);
+		slow.requestFinished();
+
+		assertEquals("select * from quote where id = ? and author in (?)", slow.getFindings().get(1).sql());
+		assertEquals("request-2", slow.getFindings().get(0).requestId());
+		// only one statement shape is kept, the others are counted as other
+		assertEquals(List.of(JdbcInstrumentation.OTHER, "select * from quote where id = ? and author in (?)"),
+				slow.getStatements().stream().map(JdbcInstrumentation.StatementSummary::sql).sorted().toList());
+	}
+}
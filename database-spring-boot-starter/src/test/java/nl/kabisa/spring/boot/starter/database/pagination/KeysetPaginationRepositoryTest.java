@@ -0,0 +1,89 @@
+package nl.kabisa.spring.boot.starter.database.pagination;
+
+import nl.kabisa.spring.boot.starter.database.entity.QuoteEntity;
+import nl.kabisa.spring.boot.starter.database.repositories.QuoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that the {@link KeysetPaginationRepository} pages through all rows with a cursor.
+ */
+@SpringBootTest
+class KeysetPaginationRepositoryTest {
+
+	private static final Specification<QuoteEntity> KEYSET = (root, query, builder) -> builder.equal(root.get("author"), "keyset");
+	private static final Sort SORT = Sort.by("creationDate", "id");
+
+	@Autowired
+	private QuoteRepository quoteRepository;
+
+	private List<Long> ids;
+
+	@BeforeEach
+	void setUp() {
+		quoteRepository.deleteAll(quoteRepository.findAll(KEYSET));
+		ids = quoteRepository.saveAll(IntStream.range(0, 25)
+						.mapToObj(i -> QuoteEntity.builder().text("quote " + i).author("keyset").creationDate(LocalDate.of(2024, 1, 1 + i % 3)).build())
+						.toList()).stream()
+				.sorted((a, b) -> a.getCreationDate().equals(b.getCreationDate()) ? a.getId().compareTo(b.getId()) : a.getCreationDate().compareTo(b.getCreationDate()))
+				.map(QuoteEntity::getId)
+				.toList();
+	}
+
+	@Test
+	void testPages() {
+		List<Long> paged = new ArrayList<>();
+		List<Integer> sizes = new ArrayList<>();
+		String cursor = null;
+		do {
+			KeysetWindow<QuoteEntity> page = quoteRepository.findPage(KEYSET, SORT, 10, cursor);
+			page.content().forEach(quote -> paged.add(quote.getId()));
+			sizes.add(page.content().size());
+			cursor = page.nextCursor();
+		} while (cursor != null);
+
+		assertEquals(List.of(10, 10, 5), sizes);
+		assertEquals(ids, paged);
+	}
+
+	@Test
+	void testLastPage() {
+		KeysetWindow<QuoteEntity> page = quoteRepository.findPage(KEYSET, SORT, 25, null);
+		assertEquals(25, page.content().size());
+		assertFalse(page.hasNext());
+		assertNull(page.nextCursor());
+	}
+
+	@Test
+	void testCursor() {
+		Map<String, Object> keys = Map.of("creationDate", LocalDate.of(2024, 1, 2), "id", 42L);
+		String cursor = KeysetCursor.encode(ScrollPosition.forward(keys));
+		assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+		assertEquals(keys, KeysetCursor.decode(cursor, SORT).getKeys());
+
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not a cursor", SORT));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(cursor, Sort.by("id")));
+		InvalidDataAccessApiUsageException exception = assertThrows(InvalidDataAccessApiUsageException.class,
+				() -> quoteRepository.findPage(SORT, 10, "aWQ9bDp4"));
+		assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+	}
+}
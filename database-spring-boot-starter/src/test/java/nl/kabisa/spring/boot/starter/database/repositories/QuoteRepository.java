@@ -1,9 +1,18 @@
 package nl.kabisa.spring.boot.starter.database.repositories;
 
+import jakarta.persistence.QueryHint;
 import nl.kabisa.spring.boot.starter.database.entity.QuoteEntity;
+import nl.kabisa.spring.boot.starter.database.pagination.KeysetPaginationRepository;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
-public interface QuoteRepository extends JpaRepository<QuoteEntity, Long> {
+public interface QuoteRepository extends JpaRepository<QuoteEntity, Long>, KeysetPaginationRepository<QuoteEntity> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<QuoteEntity> streamAllByAuthor(String author);
 }
@@ -0,0 +1,152 @@
+package nl.kabisa.spring.boot.starter.database.retry;
+
+import nl.kabisa.spring.boot.starter.database.entity.QuoteEntity;
+import nl.kabisa.spring.boot.starter.database.repositories.QuoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that a {@link RetryOnOptimisticLock} method is called again in a new transaction on a conflict.
+ */
+@SpringBootTest(properties = {
+		"service.starter.database.retry.initial-backoff=1ms",
+		"service.starter.database.retry.max-backoff=5ms"
+})
+class OptimisticLockRetryInterceptorTest {
+
+	@Autowired
+	private QuoteService quoteService;
+	@Autowired
+	private QuoteRepository quoteRepository;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private ConflictRecorder conflictRecorder;
+
+	private Long id;
+
+	@BeforeEach
+	void setUp() {
+		conflictRecorder.conflicts.clear();
+		id = quoteRepository.save(QuoteEntity.builder().text("retry").author("retry").build()).getId();
+	}
+
+	@Test
+	void testRetried() {
+		quoteService.conflicts(2);
+		quoteService.rename(id, "renamed");
+
+		assertEquals("renamed", quoteRepository.findById(id).orElseThrow().getText());
+		assertEquals(List.of("QuoteService.rename:1:true", "QuoteService.rename:2:true"), conflictRecorder.conflicts);
+	}
+
+	@Test
+	void testExhausted() {
+		quoteService.conflicts(5);
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> quoteService.rename(id, "renamed"));
+
+		assertEquals("retry", quoteRepository.findById(id).orElseThrow().getText());
+		assertEquals(List.of("QuoteService.rename:1:true", "QuoteService.rename:2:true", "QuoteService.rename:3:false"), conflictRecorder.conflicts);
+	}
+
+	@Test
+	void testAnnotationMaxAttempts() {
+		quoteService.conflicts(5);
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> quoteService.renameOnce(id, "renamed"));
+		assertEquals(List.of("QuoteService.renameOnce:1:false"), conflictRecorder.conflicts);
+	}
+
+	@Test
+	void testNotRetriedInTransaction() {
+		quoteService.conflicts(1);
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+			quoteService.rename(id, "renamed");
+			quoteRepository.flush();
+		}));
+		assertTrue(conflictRecorder.conflicts.isEmpty());
+	}
+
+	@Test
+	void testBackoff() {
+		OptimisticLockRetryInterceptor interceptor = new OptimisticLockRetryInterceptor(5, Duration.ofMillis(10), Duration.ofMillis(50), 2.0, List.of());
+		for (int i = 0; i < 100; i++) {
+			assertTrue(interceptor.backoff(1) <= 10);
+			assertTrue(interceptor.backoff(3) <= 40);
+			assertTrue(interceptor.backoff(10) <= 50);
+		}
+	}
+
+	static class QuoteService {
+
+		private final AtomicInteger conflicts = new AtomicInteger();
+		private final QuoteRepository quoteRepository;
+		private final JdbcTemplate jdbcTemplate;
+
+		QuoteService(QuoteRepository quoteRepository, JdbcTemplate jdbcTemplate) {
+			this.quoteRepository = quoteRepository;
+			this.jdbcTemplate = jdbcTemplate;
+		}
+
+		public void conflicts(int count) {
+			conflicts.set(count);
+		}
+
+		@RetryOnOptimisticLock
+		@Transactional
+		public void rename(Long id, String text) {
+			QuoteEntity quote = quoteRepository.findById(id).orElseThrow();
+			if (conflicts.getAndDecrement() > 0) {
+				// a concurrent update of the row
+				jdbcTemplate.update("UPDATE QUOTE SET VERSION = VERSION + 1 WHERE ID = ?", id);
+			}
+			quote.setText(text);
+		}
+
+		@RetryOnOptimisticLock(maxAttempts = 1)
+		@Transactional
+		public void renameOnce(Long id, String text) {
+			rename(id, text);
+		}
+	}
+
+	static class ConflictRecorder implements OptimisticLockRetryListener {
+
+		final List<String> conflicts = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void conflict(String method, int attempt, boolean retried) {
+			conflicts.add(method + ":" + attempt + ":" + retried);
+		}
+	}
+
+	@TestConfiguration
+	static class QuoteServiceConfiguration {
+
+		@Bean
+		QuoteService quoteService(QuoteRepository quoteRepository, JdbcTemplate jdbcTemplate) {
+			return new QuoteService(quoteRepository, jdbcTemplate);
+		}
+
+		@Bean
+		ConflictRecorder conflictRecorder() {
+			return new ConflictRecorder();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package nl.kabisa.spring.boot.starter.database.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import nl.kabisa.spring.boot.starter.database.entity.QuoteEntity;
+import nl.kabisa.spring.boot.starter.database.repositories.QuoteRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that read-only transactions go to the replicas and all other work goes to the primary database.
+ */
+@SpringBootTest(properties = {
+		"service.starter.database.replica.enabled=true",
+		"service.starter.database.replica.urls[0]=" + ReplicaRoutingAutoConfigurationTest.REPLICA_1,
+		"service.starter.database.replica.urls[1]=" + ReplicaRoutingAutoConfigurationTest.REPLICA_2,
+		"service.starter.database.replica.username=replica",
+		"service.starter.database.replica.password=secret"
+})
+class ReplicaRoutingAutoConfigurationTest {
+
+	static final String REPLICA_1 = "jdbc:h2:mem:replica1;MODE=HSQLDB;DB_CLOSE_DELAY=-1";
+	static final String REPLICA_2 = "jdbc:h2:mem:replica2;MODE=HSQLDB;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private DataSource dataSource;
+	@Autowired
+	private HikariDataSource primaryDataSource;
+	@Autowired
+	private ReplicaDataSource replicaDataSource;
+	@Autowired
+	private QuoteRepository quoteRepository;
+
+	@BeforeAll
+	static void createReplicas() throws SQLException {
+		createReplica(REPLICA_1, "replica 1");
+		createReplica(REPLICA_2, "replica 2");
+	}
+
+	private static void createReplica(String url, String author) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(url, "replica", "secret");
+			 Statement statement = connection.createStatement()) {
+			statement.execute("RUNSCRIPT FROM 'classpath:db/migration/V1_0_0__initial_setup.sql'");
+			statement.execute("INSERT INTO QUOTE (ID, VERSION, TEXT, AUTHOR, CREATION_DATE, ACTIVE) VALUES (1, 0, 'read', '" + author + "', CURRENT_DATE, TRUE)");
+		}
+	}
+
+	@Test
+	void testReadOnlyTransactionsGoToReplicas() {
+		assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+		assertEquals(2, replicaDataSource.getReplicas().size());
+		assertTrue(replicaDataSource.getReplicas().stream().allMatch(HikariDataSource::isReadOnly));
+
+		// findAll runs in a read-only transaction, round-robin over both replicas
+		Set<String> authors = new HashSet<>();
+		for (int i = 0; i < 4; i++) {
+			quoteRepository.findAll().forEach(quote -> authors.add(quote.getAuthor()));
+		}
+		assertEquals(Set.of("replica 1", "replica 2"), authors);
+	}
+
+	@Test
+	void testWritesGoToPrimary() {
+		quoteRepository.save(QuoteEntity.builder().text("write").author("primary").build());
+
+		JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+		assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM QUOTE WHERE AUTHOR = 'primary'", Integer.class));
+		for (HikariDataSource replica : replicaDataSource.getReplicas()) {
+			assertEquals(0, new JdbcTemplate(replica).queryForObject("SELECT COUNT(*) FROM QUOTE WHERE AUTHOR = 'primary'", Integer.class));
+		}
+	}
+}
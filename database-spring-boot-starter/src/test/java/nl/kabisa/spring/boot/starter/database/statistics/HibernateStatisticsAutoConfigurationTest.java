@@ -0,0 +1,109 @@
+package nl.kabisa.spring.boot.starter.database.statistics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import nl.kabisa.spring.boot.starter.database.entity.QuoteEntity;
+import nl.kabisa.spring.boot.starter.database.repositories.QuoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that the Hibernate statistics are sampled and a low query plan cache hit ratio is detected.
+ */
+@SpringBootTest(properties = {
+		"service.starter.database.statistics.enabled=true",
+		"service.starter.database.statistics.query-plan-cache-max-size=64",
+		"service.starter.database.statistics.min-plan-cache-requests=10"
+})
+class HibernateStatisticsAutoConfigurationTest {
+
+	@Autowired
+	private HibernateStatisticsSampler sampler;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private QuoteRepository quoteRepository;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private HibernateStatisticsEndpoint endpoint;
+
+	@BeforeEach
+	void setUp() {
+		endpoint = new HibernateStatisticsEndpoint(sampler);
+		// the samples of the tests only hold the increase since this one
+		sampler.sample();
+	}
+
+	@Test
+	void testProperties() {
+		assertEquals("true", entityManagerFactory.getProperties().get("hibernate.generate_statistics"));
+		assertEquals("64", entityManagerFactory.getProperties().get("hibernate.query.plan_cache_max_size"));
+		assertTrue(sampler.getStatistics().isStatisticsEnabled());
+	}
+
+	@Test
+	void testSample() {
+		quoteRepository.save(QuoteEntity.builder().text("statistics").author("statistics").build());
+		transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < 20; i++) {
+				entityManager.createQuery("select q from Quote q where q.author = :author", QuoteEntity.class)
+						.setParameter("author", "statistics").getResultList();
+			}
+		});
+
+		HibernateStatisticsSampler.Sample sample = sampler.sample();
+		assertEquals(20, sample.queryExecutions());
+		assertTrue(sample.flushes() >= 1);
+		assertTrue(sample.queryPlanCacheHitRatio() >= 0.9, "hit ratio: " + sample.queryPlanCacheHitRatio());
+
+		assertTrue(meterRegistry.get("hibernate.query.executions").functionCounter().count() >= 20);
+		assertTrue(meterRegistry.get("hibernate.query.plan.cache.hit.ratio").gauge().value() >= 0.9);
+
+		// the next sample only holds the increase since this one
+		assertEquals(0, sampler.sample().queryExecutions());
+	}
+
+	@Test
+	void testDynamicQueries() {
+		transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < 20; i++) {
+				// a literal in the query string, every query is a plan cache miss
+				entityManager.createQuery("select q from Quote q where q.id = " + (-i), QuoteEntity.class).getResultList();
+			}
+		});
+
+		HibernateStatisticsSampler.Sample sample = sampler.sample();
+		assertTrue(sample.queryPlanCacheMisses() >= 20);
+		assertTrue(sample.queryPlanCacheHitRatio() < 0.5, "hit ratio: " + sample.queryPlanCacheHitRatio());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testEndpoint() {
+		quoteRepository.findAll();
+		sampler.sample();
+
+		Map<String, Object> result = endpoint.hibernate();
+		assertTrue(((HibernateStatisticsSampler.Sample) result.get("totals")).queryExecutions() >= 1);
+		assertFalse(((List<Map<String, Object>>) result.get("queries")).isEmpty());
+
+		assertNotNull(result.get("lastSample"));
+	}
+}
@@ -0,0 +1,174 @@
+package nl.kabisa.spring.boot.starter.database.streaming;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.kabisa.spring.boot.starter.database.bulk.BulkWriter;
+import nl.kabisa.spring.boot.starter.database.entity.QuoteEntity;
+import nl.kabisa.spring.boot.starter.database.repositories.QuoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test to check that the {@link EntityStreamWriter} writes all streamed entities as JSON array and NDJSON, and that only
+ * the stream queries get a fetch size. Without JPA the writer is not configured.
+ */
+@SpringBootTest(properties = "service.starter.database.bulk.enabled=true")
+class EntityStreamWriterTest {
+
+	private static final int QUOTES = 1200;
+	private static final List<Integer> FETCH_SIZES = new CopyOnWriteArrayList<>();
+
+	@Autowired
+	private EntityStreamWriter entityStreamWriter;
+	@Autowired
+	private QuoteRepository quoteRepository;
+	@Autowired
+	private BulkWriter bulkWriter;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		jdbcTemplate.update("DELETE FROM QUOTE WHERE AUTHOR = 'stream'");
+		bulkWriter.write("QUOTE", List.of("ID", "VERSION", "TEXT", "AUTHOR", "CREATION_DATE", "ACTIVE"), IntStream.range(0, QUOTES).boxed(),
+				i -> new Object[]{2_000_000L + i, 0L, "stream " + i, "stream", LocalDate.of(2024, 1, 1), true});
+	}
+
+	@Test
+	void testJsonArray() throws Exception {
+		ResponseEntity<StreamingResponseBody> response = entityStreamWriter.response(
+				() -> quoteRepository.streamAllByAuthor("stream"), EntityStreamWriter.Format.JSON_ARRAY);
+		assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		response.getBody().writeTo(output);
+
+		JsonNode quotes = objectMapper.readTree(output.toByteArray());
+		assertEquals(QUOTES, quotes.size());
+		assertEquals("stream", quotes.get(QUOTES - 1).get("author").asText());
+	}
+
+	@Test
+	void testQuery() throws Exception {
+		FETCH_SIZES.clear();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		long count = entityStreamWriter.write(entityStreamWriter.query(entityManager -> entityManager.createQuery(
+				"select q from Quote q where q.author = 'stream'", QuoteEntity.class)), EntityStreamWriter.Format.NDJSON, output);
+
+		assertEquals(QUOTES, count);
+		assertEquals(List.of(500), FETCH_SIZES);
+	}
+
+	@Test
+	void testFetchSizeOnlyForStreamQueries() throws Exception {
+		FETCH_SIZES.clear();
+		quoteRepository.findAll();
+		assertTrue(FETCH_SIZES.isEmpty());
+
+		entityStreamWriter.write(() -> quoteRepository.streamAllByAuthor("stream"), EntityStreamWriter.Format.NDJSON, new ByteArrayOutputStream());
+		assertEquals(List.of(500), FETCH_SIZES);
+	}
+
+	@Test
+	void testNdjson() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		long count = entityStreamWriter.write(() -> quoteRepository.streamAllByAuthor("stream"), EntityStreamWriter.Format.NDJSON, output);
+
+		String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(QUOTES, count);
+		assertEquals(QUOTES, lines.length);
+		assertEquals("stream", objectMapper.readTree(lines[0]).get("author").asText());
+	}
+
+	@Test
+	void testNotConfiguredWithoutJpa() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(EntityStreamingAutoConfiguration.class))
+				.run(context -> {
+					assertNull(context.getStartupFailure());
+					assertFalse(context.containsBean("entityStreamWriter"));
+				});
+	}
+
+	@TestConfiguration
+	static class FetchSizeRecordingConfiguration {
+
+		@Bean
+		static BeanPostProcessor fetchSizeRecordingPostProcessor() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource && "dataSource".equals(beanName) ? new FetchSizeRecordingDataSource(dataSource) : bean;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Records the fetch sizes set on the prepared statements.
+	 */
+	static class FetchSizeRecordingDataSource extends DelegatingDataSource {
+
+		FetchSizeRecordingDataSource(DataSource targetDataSource) {
+			super(targetDataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			Connection connection = super.getConnection();
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+				Object result = invoke(connection, method, args);
+				if (result instanceof PreparedStatement statement) {
+					return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class}, (statementProxy, statementMethod, statementArgs) -> {
+						if ("setFetchSize".equals(statementMethod.getName())) {
+							FETCH_SIZES.add((Integer) statementArgs[0]);
+						}
+						return invoke(statement, statementMethod, statementArgs);
+					});
+				}
+				return result;
+			});
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1 @@
+CREATE TABLE EXTRA (ID BIGINT NOT NULL);
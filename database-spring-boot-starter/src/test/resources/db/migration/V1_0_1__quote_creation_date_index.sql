@@ -0,0 +1 @@
+CREATE INDEX quote_creation_date_idx ON QUOTE (CREATION_DATE, ID);
@@ -0,0 +1,47 @@
+package nl.kabisa.spring.boot.starter.gradle;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+
+/**
+ * Configuration of the {@link CdsPlugin}, available in the build script as 'serviceCds'.
+ *
+ * <pre>
+ * serviceCds {
+ *     trainingArguments = ['--spring.profiles.active=cds']
+ * }
+ * </pre>
+ */
+public abstract class CdsExtension {
+
+    /**
+     * The directory the application is extracted to, the archive is written in the 'application' subdirectory.
+     * Default: build/cds
+     */
+    public abstract DirectoryProperty getDestinationDirectory();
+
+    /**
+     * The file name of the Class Data Sharing archive.
+     * Default: application.jsa
+     */
+    public abstract Property<String> getArchiveFileName();
+
+    /**
+     * JVM arguments of the training run.
+     * Default: -Dspring.context.exit=onRefresh, the application stops as soon as the context is refreshed.
+     */
+    public abstract ListProperty<String> getTrainingJvmArguments();
+
+    /**
+     * Application arguments of the training run, for instance a profile without external resources.
+     * Default: none
+     */
+    public abstract ListProperty<String> getTrainingArguments();
+
+    /**
+     * Create the archive as part of the 'assemble' task.
+     * Default: true
+     */
+    public abstract Property<Boolean> getIncludeInAssemble();
+}
@@ -0,0 +1,95 @@
+package nl.kabisa.spring.boot.starter.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.plugins.BasePlugin;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Exec;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.api.tasks.bundling.AbstractArchiveTask;
+import org.gradle.jvm.toolchain.JavaLauncher;
+import org.gradle.jvm.toolchain.JavaToolchainService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Gradle plugin that creates an AppCDS (Class Data Sharing) archive for a Spring Boot service.
+ * <p>
+ * The boot jar is extracted with the Spring Boot tools jar mode, after which the application is started once
+ * (a training run) with -XX:ArchiveClassesAtExit. The JVM writes all classes loaded during the training run
+ * to the archive. The service is started from the extracted directory with the same class path:
+ * <pre>
+ * java -XX:SharedArchiveFile=application.jsa -jar service.jar
+ * </pre>
+ * The training run refreshes the application context, so beans that connect to external resources
+ * (a database, Flyway) need to be reachable or configured away with the 'serviceCds.trainingArguments'.
+ * <p>
+ * The plugin only configures tasks when the 'org.springframework.boot' plugin is applied.
+ *
+ * @see <a href="https://docs.spring.io/spring-boot/reference/packaging/class-data-sharing.html">Class Data Sharing</a>
+ */
+public class CdsPlugin implements Plugin<Project> {
+
+    public static final String EXTENSION_NAME = "serviceCds";
+    public static final String EXTRACT_TASK_NAME = "extractBootJar";
+    public static final String CDS_ARCHIVE_TASK_NAME = "cdsArchive";
+
+    @Override
+    public void apply(Project project) {
+        CdsExtension extension = project.getExtensions().create(EXTENSION_NAME, CdsExtension.class);
+        extension.getDestinationDirectory().convention(project.getLayout().getBuildDirectory().dir("cds"));
+        extension.getArchiveFileName().convention("application.jsa");
+        extension.getTrainingJvmArguments().convention(List.of("-Dspring.context.exit=onRefresh"));
+        extension.getTrainingArguments().convention(Collections.emptyList());
+        extension.getIncludeInAssemble().convention(true);
+
+        project.getPluginManager().withPlugin("org.springframework.boot", plugin -> configureTasks(project, extension));
+    }
+
+    private void configureTasks(Project project, CdsExtension extension) {
+        JavaToolchainService toolchains = project.getExtensions().getByType(JavaToolchainService.class);
+        Provider<JavaLauncher> launcher = toolchains.launcherFor(project.getExtensions().getByType(JavaPluginExtension.class).getToolchain());
+        Provider<RegularFile> bootJar = project.getTasks().named("bootJar", AbstractArchiveTask.class).flatMap(AbstractArchiveTask::getArchiveFile);
+        Provider<Directory> applicationDirectory = extension.getDestinationDirectory().dir("application");
+
+        TaskProvider<Exec> extract = project.getTasks().register(EXTRACT_TASK_NAME, Exec.class, task -> {
+            task.setGroup(BasePlugin.BUILD_GROUP);
+            task.setDescription("Extracts the boot jar in a layout suitable for Class Data Sharing.");
+            task.getInputs().file(bootJar);
+            task.getOutputs().dir(applicationDirectory);
+            task.getArgumentProviders().add(() -> List.of("-Djarmode=tools", "-jar", bootJar.get().getAsFile().getAbsolutePath(),
+                    "extract", "--destination", applicationDirectory.get().getAsFile().getAbsolutePath(), "--force"));
+            task.doFirst(t -> ((Exec) t).setExecutable(launcher.get().getExecutablePath().getAsFile()));
+        });
+
+        TaskProvider<Exec> archive = project.getTasks().register(CDS_ARCHIVE_TASK_NAME, Exec.class, task -> {
+            task.setGroup(BasePlugin.BUILD_GROUP);
+            task.setDescription("Creates a Class Data Sharing archive with a training run of the application.");
+            task.dependsOn(extract);
+            // the extracted directory also contains the archive, the extracted files only change with the boot jar
+            task.getInputs().file(bootJar);
+            task.getInputs().property("trainingJvmArguments", extension.getTrainingJvmArguments());
+            task.getInputs().property("trainingArguments", extension.getTrainingArguments());
+            task.getOutputs().file(applicationDirectory.zip(extension.getArchiveFileName(), Directory::file));
+            task.workingDir(applicationDirectory);
+            task.getArgumentProviders().add(() -> {
+                // same relative class path as the service uses at runtime, the JVM validates it when mapping the archive
+                List<String> args = new ArrayList<>(extension.getTrainingJvmArguments().get());
+                args.add("-XX:ArchiveClassesAtExit=" + extension.getArchiveFileName().get());
+                args.add("-jar");
+                args.add(bootJar.get().getAsFile().getName());
+                args.addAll(extension.getTrainingArguments().get());
+                return args;
+            });
+            task.doFirst(t -> ((Exec) t).setExecutable(launcher.get().getExecutablePath().getAsFile()));
+        });
+
+        project.getTasks().named(BasePlugin.ASSEMBLE_TASK_NAME).configure(task -> task.dependsOn(
+                extension.getIncludeInAssemble().map(include -> include ? List.<Object>of(archive) : List.of())));
+    }
+}
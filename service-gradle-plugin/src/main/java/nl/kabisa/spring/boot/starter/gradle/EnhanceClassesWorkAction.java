@@ -0,0 +1,152 @@
+package nl.kabisa.spring.boot.starter.gradle;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.hibernate.bytecode.enhance.spi.DefaultEnhancementContext;
+import org.hibernate.bytecode.enhance.spi.Enhancer;
+import org.hibernate.bytecode.enhance.spi.UnloadedClass;
+import org.hibernate.bytecode.enhance.spi.UnloadedField;
+import org.hibernate.bytecode.internal.BytecodeProviderInitiator;
+import org.hibernate.bytecode.spi.BytecodeProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Enhances the compiled classes in place with the Hibernate bytecode enhancer. Runs in a class loader with the
+ * Hibernate version of the service, see {@link HibernateEnhancementPlugin}.
+ */
+public abstract class EnhanceClassesWorkAction implements WorkAction<EnhanceClassesWorkAction.Parameters> {
+
+    private static final Logger LOG = Logging.getLogger(EnhanceClassesWorkAction.class);
+
+    public interface Parameters extends WorkParameters {
+
+        ConfigurableFileCollection getClassesDirs();
+
+        Property<Boolean> getEnableDirtyTracking();
+
+        Property<Boolean> getEnableLazyInitialization();
+
+        Property<Boolean> getEnableAssociationManagement();
+    }
+
+    @Override
+    public void execute() {
+        Parameters parameters = getParameters();
+        try (URLClassLoader classLoader = new URLClassLoader(urls(parameters.getClassesDirs().getFiles()), getClass().getClassLoader())) {
+            BytecodeProvider bytecodeProvider = BytecodeProviderInitiator.buildDefaultBytecodeProvider();
+            try {
+                Enhancer enhancer = bytecodeProvider.getEnhancer(new Context(classLoader, parameters));
+                List<Path> classFiles = new ArrayList<>();
+                for (File classesDir : parameters.getClassesDirs().getFiles()) {
+                    if (classesDir.isDirectory()) {
+                        classFiles.addAll(classFiles(classesDir.toPath()));
+                    }
+                }
+                // every type is discovered before the first class is enhanced, embeddables are enhanced with their entity
+                for (Path classFile : classFiles) {
+                    enhancer.discoverTypes(className(parameters, classFile), Files.readAllBytes(classFile));
+                }
+                int enhanced = 0;
+                for (Path classFile : classFiles) {
+                    byte[] bytes = enhancer.enhance(className(parameters, classFile), Files.readAllBytes(classFile));
+                    if (bytes != null) {
+                        Files.write(classFile, bytes);
+                        enhanced++;
+                    }
+                }
+                LOG.info("Hibernate bytecode enhancement: {} of {} classes enhanced", enhanced, classFiles.size());
+            } finally {
+                bytecodeProvider.resetCaches();
+            }
+        } catch (IOException e) {
+            throw new GradleException("Hibernate bytecode enhancement failed", e);
+        }
+    }
+
+    private static List<Path> classFiles(Path classesDir) throws IOException {
+        try (Stream<Path> files = Files.walk(classesDir)) {
+            return files.filter(file -> file.toString().endsWith(".class")).toList();
+        }
+    }
+
+    private static String className(Parameters parameters, Path classFile) {
+        for (File classesDir : parameters.getClassesDirs().getFiles()) {
+            if (classFile.startsWith(classesDir.toPath())) {
+                String name = classesDir.toPath().relativize(classFile).toString();
+                return name.substring(0, name.length() - ".class".length()).replace(File.separatorChar, '.');
+            }
+        }
+        throw new IllegalArgumentException("Not in a classes directory: " + classFile);
+    }
+
+    private static URL[] urls(Iterable<File> files) throws MalformedURLException {
+        List<URL> urls = new ArrayList<>();
+        for (File file : files) {
+            urls.add(file.toURI().toURL());
+        }
+        return urls.toArray(new URL[0]);
+    }
+
+    /**
+     * The enhancement options of the extension, the entity detection of Hibernate.
+     */
+    private static class Context extends DefaultEnhancementContext {
+
+        private final ClassLoader classLoader;
+        private final boolean dirtyTracking;
+        private final boolean lazyInitialization;
+        private final boolean associationManagement;
+
+        Context(ClassLoader classLoader, Parameters parameters) {
+            this.classLoader = classLoader;
+            this.dirtyTracking = parameters.getEnableDirtyTracking().get();
+            this.lazyInitialization = parameters.getEnableLazyInitialization().get();
+            this.associationManagement = parameters.getEnableAssociationManagement().get();
+        }
+
+        @Override
+        public ClassLoader getLoadingClassLoader() {
+            return classLoader;
+        }
+
+        @Override
+        public boolean doDirtyCheckingInline(UnloadedClass classDescriptor) {
+            return dirtyTracking;
+        }
+
+        @Override
+        public boolean hasLazyLoadableAttributes(UnloadedClass classDescriptor) {
+            return lazyInitialization;
+        }
+
+        @Override
+        public boolean isLazyLoadable(UnloadedField field) {
+            return lazyInitialization && super.isLazyLoadable(field);
+        }
+
+        @Override
+        public boolean doBiDirectionalAssociationManagement(UnloadedField field) {
+            return associationManagement;
+        }
+
+        @Override
+        public boolean doExtendedEnhancement(UnloadedClass classDescriptor) {
+            return false;
+        }
+    }
+}
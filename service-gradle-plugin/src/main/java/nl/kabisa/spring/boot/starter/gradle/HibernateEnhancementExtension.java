@@ -0,0 +1,34 @@
+package nl.kabisa.spring.boot.starter.gradle;
+
+import org.gradle.api.provider.Property;
+
+/**
+ * Configuration of the {@link HibernateEnhancementPlugin}, available in the build script as 'serviceHibernate'.
+ *
+ * <pre>
+ * serviceHibernate {
+ *     enableAssociationManagement = false
+ * }
+ * </pre>
+ */
+public abstract class HibernateEnhancementExtension {
+
+    /**
+     * Track changed attributes in the entity itself, a flush only compares the attributes that were set.
+     * Default: true
+     */
+    public abstract Property<Boolean> getEnableDirtyTracking();
+
+    /**
+     * Load basic attributes annotated with @Basic(fetch = FetchType.LAZY) on first access, and proxy-less lazy to-one
+     * associations.
+     * Default: true
+     */
+    public abstract Property<Boolean> getEnableLazyInitialization();
+
+    /**
+     * Set the other side of a bidirectional association when one side is set.
+     * Default: true
+     */
+    public abstract Property<Boolean> getEnableAssociationManagement();
+}
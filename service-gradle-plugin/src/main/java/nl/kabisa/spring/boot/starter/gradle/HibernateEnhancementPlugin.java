@@ -0,0 +1,72 @@
+package nl.kabisa.spring.boot.starter.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.compile.JavaCompile;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+
+/**
+ * Gradle plugin that applies the Hibernate bytecode enhancement to the entities of a service at build time.
+ * <p>
+ * The classes compiled by 'compileJava' are enhanced in place, so the jar and the tests use the enhanced entities:
+ * <ul>
+ *     <li>inline dirty tracking: the entity records which attributes were set, a flush does not compare every
+ *     attribute of every managed entity with its loaded snapshot</li>
+ *     <li>lazy initialization: @Basic(fetch = FetchType.LAZY) attributes, like large text or binary columns, are only
+ *     loaded when accessed</li>
+ *     <li>association management: setting one side of a bidirectional association sets the other side</li>
+ * </ul>
+ * The enhancer is loaded from the runtime classpath of the service, so the enhancement always matches the Hibernate
+ * version of the database starter. Enhanced entities must not be final and are only managed through their accessors.
+ *
+ * @see <a href="https://docs.jboss.org/hibernate/orm/6.5/userguide/html_single/Hibernate_User_Guide.html#BytecodeEnhancement">Bytecode Enhancement</a>
+ */
+public abstract class HibernateEnhancementPlugin implements Plugin<Project> {
+
+    public static final String EXTENSION_NAME = "serviceHibernate";
+
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    @Override
+    public void apply(Project project) {
+        HibernateEnhancementExtension extension = project.getExtensions().create(EXTENSION_NAME, HibernateEnhancementExtension.class);
+        extension.getEnableDirtyTracking().convention(true);
+        extension.getEnableLazyInitialization().convention(true);
+        extension.getEnableAssociationManagement().convention(true);
+
+        project.getPluginManager().withPlugin("java", plugin -> configureTasks(project, extension));
+    }
+
+    private void configureTasks(Project project, HibernateEnhancementExtension extension) {
+        Configuration runtimeClasspath = project.getConfigurations().getByName(JavaPlugin.RUNTIME_CLASSPATH_CONFIGURATION_NAME);
+        WorkerExecutor workerExecutor = getWorkerExecutor();
+
+        project.getTasks().named(JavaPlugin.COMPILE_JAVA_TASK_NAME, JavaCompile.class).configure(task -> {
+            FileCollection classesDir = project.files(task.getDestinationDirectory());
+            task.getInputs().property("hibernateEnableDirtyTracking", extension.getEnableDirtyTracking());
+            task.getInputs().property("hibernateEnableLazyInitialization", extension.getEnableLazyInitialization());
+            task.getInputs().property("hibernateEnableAssociationManagement", extension.getEnableAssociationManagement());
+            task.doLast("hibernateEnhancement", t -> {
+                if (runtimeClasspath.getFiles().stream().noneMatch(file -> file.getName().startsWith("hibernate-core-"))) {
+                    t.getLogger().warn("Hibernate bytecode enhancement skipped, hibernate-core is not on the runtime classpath");
+                    return;
+                }
+                WorkQueue queue = workerExecutor.classLoaderIsolation(spec -> spec.getClasspath().from(runtimeClasspath));
+                queue.submit(EnhanceClassesWorkAction.class, parameters -> {
+                    parameters.getClassesDirs().from(classesDir);
+                    parameters.getEnableDirtyTracking().set(extension.getEnableDirtyTracking());
+                    parameters.getEnableLazyInitialization().set(extension.getEnableLazyInitialization());
+                    parameters.getEnableAssociationManagement().set(extension.getEnableAssociationManagement());
+                });
+                queue.await();
+            });
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package nl.kabisa.spring.boot.starter.gradle;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Functional test that applies the {@link CdsPlugin} to a fixture Spring Boot application, to check that the archive
+ * is created with a training run and the tasks are up-to-date on a second run.
+ */
+class CdsPluginTest {
+
+	@TempDir
+	Path projectDir;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		Files.writeString(projectDir.resolve("settings.gradle"), "rootProject.name = 'fixture'\n");
+		Files.writeString(projectDir.resolve("build.gradle"), """
+				plugins {
+					id 'java'
+					id 'org.springframework.boot' version '%s'
+					id 'nl.kabisa.spring.boot.starter.cds'
+				}
+
+				repositories {
+					mavenCentral()
+				}
+
+				dependencies {
+					implementation platform('org.springframework.boot:spring-boot-dependencies:%<s')
+					implementation 'org.springframework.boot:spring-boot-starter'
+				}
+				""".formatted(System.getProperty("springBootVersion")));
+		Path sources = Files.createDirectories(projectDir.resolve("src/main/java/fixture"));
+		Files.writeString(sources.resolve("Application.java"), """
+				package fixture;
+
+				import org.springframework.boot.SpringApplication;
+				import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+				@SpringBootApplication
+				public class Application {
+
+					public static void main(String[] args) {
+						SpringApplication.run(Application.class, args);
+					}
+				}
+				""");
+	}
+
+	@Test
+	void testArchive() {
+		BuildResult result = build("assemble");
+
+		assertEquals(TaskOutcome.SUCCESS, result.task(":extractBootJar").getOutcome());
+		assertEquals(TaskOutcome.SUCCESS, result.task(":cdsArchive").getOutcome());
+		assertTrue(Files.isRegularFile(projectDir.resolve("build/cds/application/fixture.jar")));
+		assertTrue(Files.isRegularFile(projectDir.resolve("build/cds/application/application.jsa")));
+	}
+
+	@Test
+	void testUpToDate() {
+		build("cdsArchive");
+
+		BuildResult result = build("cdsArchive");
+
+		assertEquals(TaskOutcome.UP_TO_DATE, result.task(":extractBootJar").getOutcome());
+		assertEquals(TaskOutcome.UP_TO_DATE, result.task(":cdsArchive").getOutcome());
+	}
+
+	@Test
+	void testNotIncludedInAssemble() throws IOException {
+		Files.writeString(projectDir.resolve("build.gradle"), Files.readString(projectDir.resolve("build.gradle"))
+				+ "\nserviceCds {\n\tincludeInAssemble = false\n}\n");
+
+		assertNull(build("assemble").task(":cdsArchive"));
+	}
+
+	private BuildResult build(String task) {
+		return GradleRunner.create()
+				.withProjectDir(projectDir.toFile())
+				.withPluginClasspath()
+				.withArguments(task, "--stacktrace")
+				.forwardOutput()
+				.build();
+	}
+}
@@ -0,0 +1,126 @@
+package nl.kabisa.spring.boot.starter.gradle;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Functional test that applies the {@link HibernateEnhancementPlugin} to a fixture project, to check that the entities
+ * are enhanced and the compile task is up-to-date on a second run.
+ */
+class HibernateEnhancementPluginTest {
+
+	private static final String MANAGED_ENTITY = "org/hibernate/engine/spi/ManagedEntity";
+
+	@TempDir
+	Path projectDir;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		Files.writeString(projectDir.resolve("settings.gradle"), "rootProject.name = 'fixture'\n");
+		Files.writeString(projectDir.resolve("build.gradle"), """
+				plugins {
+					id 'java'
+					id 'nl.kabisa.spring.boot.starter.hibernate-enhancement'
+				}
+
+				repositories {
+					mavenCentral()
+				}
+
+				dependencies {
+					implementation platform('org.springframework.boot:spring-boot-dependencies:%s')
+					implementation 'org.hibernate.orm:hibernate-core'
+				}
+				""".formatted(System.getProperty("springBootVersion")));
+		Path sources = Files.createDirectories(projectDir.resolve("src/main/java/fixture"));
+		Files.writeString(sources.resolve("Quote.java"), """
+				package fixture;
+
+				import jakarta.persistence.Entity;
+				import jakarta.persistence.Id;
+
+				@Entity
+				public class Quote {
+
+					@Id
+					private Long id;
+					private String text;
+
+					public String getText() {
+						return text;
+					}
+
+					public void setText(String text) {
+						this.text = text;
+					}
+				}
+				""");
+		Files.writeString(sources.resolve("QuoteService.java"), """
+				package fixture;
+
+				public class QuoteService {
+				}
+				""");
+	}
+
+	@Test
+	void testEntitiesEnhanced() throws IOException {
+		BuildResult result = build();
+
+		assertEquals(TaskOutcome.SUCCESS, result.task(":compileJava").getOutcome());
+		assertTrue(classFile("Quote").contains(MANAGED_ENTITY));
+		assertFalse(classFile("QuoteService").contains(MANAGED_ENTITY));
+	}
+
+	@Test
+	void testUpToDate() throws IOException {
+		build();
+		byte[] enhanced = Files.readAllBytes(classPath("Quote"));
+
+		BuildResult result = build();
+
+		// the enhanced classes are the outputs of compileJava, a second run does not compile or enhance them again
+		assertEquals(TaskOutcome.UP_TO_DATE, result.task(":compileJava").getOutcome());
+		assertArrayEquals(enhanced, Files.readAllBytes(classPath("Quote")));
+	}
+
+	@Test
+	void testOptionsAreInputs() throws IOException {
+		build();
+		Files.writeString(projectDir.resolve("build.gradle"), Files.readString(projectDir.resolve("build.gradle"))
+				+ "\nserviceHibernate {\n\tenableAssociationManagement = false\n}\n");
+
+		assertEquals(TaskOutcome.SUCCESS, build().task(":compileJava").getOutcome());
+	}
+
+	private BuildResult build() {
+		return GradleRunner.create()
+				.withProjectDir(projectDir.toFile())
+				.withPluginClasspath()
+				.withArguments("compileJava", "--stacktrace")
+				.forwardOutput()
+				.build();
+	}
+
+	private Path classPath(String name) {
+		return projectDir.resolve("build/classes/java/main/fixture/" + name + ".class");
+	}
+
+	private String classFile(String name) throws IOException {
+		return new String(Files.readAllBytes(classPath(name)), StandardCharsets.ISO_8859_1);
+	}
+}
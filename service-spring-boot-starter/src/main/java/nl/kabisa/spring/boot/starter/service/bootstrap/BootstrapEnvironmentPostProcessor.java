@@ -1,16 +1,22 @@
 package nl.kabisa.spring.boot.starter.service.bootstrap;
 
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.env.EnvironmentPostProcessor;
 import org.springframework.boot.env.PropertiesPropertySourceLoader;
 import org.springframework.boot.env.PropertySourceLoader;
 import org.springframework.core.Ordered;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This environment post processor loads the default-bootstrap.properties file. This is needed because
@@ -23,11 +29,25 @@ import java.io.IOException;
  * The configuration properties of the bootstrap context load before the configuration properties
  *  of the application context.
  *
+ * For every active profile a default-bootstrap-{profile}.properties file is loaded as well, it overrides the
+ * properties of the default-bootstrap.properties file.
+ *
+ * The files are parsed once per class loader, the immutable property sources are shared by all environments
+ * (test contexts, child contexts) that are post processed with the same class loader.
+ *
  * @author Mark Spreksel
  */
 @Slf4j
 class BootstrapEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
 
+    static final String NAME = "default-bootstrap";
+
+    /**
+     * The loaded property sources per class loader and file name. The entries are softly referenced, so a
+     * class loader that is no longer used can be collected when memory runs low.
+     */
+    private static final Map<ClassLoader, Map<String, List<PropertySource<?>>>> PROPERTY_SOURCES = new ConcurrentReferenceHashMap<>();
+
     PropertySourceLoader loader;
 
     BootstrapEnvironmentPostProcessor() {
@@ -37,21 +57,40 @@ class BootstrapEnvironmentPostProcessor implements EnvironmentPostProcessor, Ord
     @Override
     public void postProcessEnvironment(ConfigurableEnvironment env, SpringApplication application) {
         //ensure that the bootstrap file is only loaded in the bootstrap context
-        if (!env.getPropertySources().contains("bootstrap")) {
-            try {
-                val sources = loader.load("default-bootstrap", new ClassPathResource("/default-bootstrap.properties"));
-                if (sources != null && !sources.isEmpty()) {
-                    sources.forEach(s -> {
-                        log.debug("Adding bootstrap properties: {}", s.getName());
-                        env.getPropertySources().addLast(s);
-                    });
-                }
-            } catch (IOException io) {
-                throw new RuntimeException(io);
+        if (!env.getPropertySources().contains("bootstrap") && !env.getPropertySources().contains(NAME)) {
+            ClassLoader classLoader = application != null ? application.getClassLoader() : ClassUtils.getDefaultClassLoader();
+            //the last active profile has the highest precedence, all are added with a lower precedence than the application properties
+            String[] profiles = env.getActiveProfiles();
+            for (int i = profiles.length - 1; i >= 0; i--) {
+                addLast(env, load(classLoader, NAME + "-" + profiles[i]));
             }
+            addLast(env, load(classLoader, NAME));
         }
     }
 
+    private void addLast(ConfigurableEnvironment env, List<PropertySource<?>> sources) {
+        sources.forEach(s -> {
+            log.debug("Adding bootstrap properties: {}", s.getName());
+            env.getPropertySources().addLast(s);
+        });
+    }
+
+    private List<PropertySource<?>> load(ClassLoader classLoader, String name) {
+        return PROPERTY_SOURCES.computeIfAbsent(classLoader, cl -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> {
+                    ClassPathResource resource = new ClassPathResource(n + ".properties", classLoader);
+                    if (!resource.exists()) {
+                        return Collections.emptyList();
+                    }
+                    try {
+                        List<PropertySource<?>> sources = loader.load(n, resource);
+                        return sources != null ? List.copyOf(sources) : Collections.emptyList();
+                    } catch (IOException io) {
+                        throw new RuntimeException(io);
+                    }
+                });
+    }
+
     @Override
     public int getOrder() {
         //must go after ConfigFileApplicationListener
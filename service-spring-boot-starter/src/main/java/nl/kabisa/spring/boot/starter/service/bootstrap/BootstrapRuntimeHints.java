@@ -0,0 +1,23 @@
+package nl.kabisa.spring.boot.starter.service.bootstrap;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Runtime hints for the resources the service-spring-boot-starter loads from the classpath before the
+ * application context exists, so they are available in an AOT processed (native) application.
+ * <p>
+ * This registrar is registered in META-INF/spring/aot.factories because the environment post processors
+ * are not beans and can not use ImportRuntimeHints.
+ */
+class BootstrapRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("default-bootstrap.properties")
+                .registerPattern("default-bootstrap-*.properties")
+                .registerPattern("platform-banner.txt");
+    }
+
+}
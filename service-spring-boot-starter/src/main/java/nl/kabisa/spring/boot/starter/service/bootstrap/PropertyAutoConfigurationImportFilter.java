@@ -0,0 +1,59 @@
+package nl.kabisa.spring.boot.starter.service.bootstrap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+/**
+ * This filter removes auto configurations that are switched off with a service.starter.*.enabled property
+ * before their classes are loaded and their conditions are evaluated.
+ * <p>
+ * The property is read from META-INF/spring-autoconfigure-metadata.properties, the same file Spring Boot uses
+ * for its own import filters:
+ * <pre>
+ * nl.kabisa...LoggingAutoConfiguration.ConditionalOnProperty=service.starter.logging.enabled
+ * nl.kabisa...LoggingAutoConfiguration.ConditionalOnProperty.matchIfMissing=false
+ * </pre>
+ * The entries mirror the @ConditionalOnProperty(havingValue = "true") annotation of the auto configuration,
+ * which is still evaluated for the auto configurations that pass this filter.
+ */
+@Slf4j
+class PropertyAutoConfigurationImportFilter implements AutoConfigurationImportFilter, EnvironmentAware {
+
+    static final String CONDITIONAL_ON_PROPERTY = "ConditionalOnProperty";
+    static final String MATCH_IF_MISSING = CONDITIONAL_ON_PROPERTY + ".matchIfMissing";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean[] matches = new boolean[autoConfigurationClasses.length];
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            matches[i] = autoConfigurationClasses[i] == null || isEnabled(autoConfigurationClasses[i], autoConfigurationMetadata);
+        }
+        return matches;
+    }
+
+    private boolean isEnabled(String autoConfigurationClass, AutoConfigurationMetadata autoConfigurationMetadata) {
+        String property = autoConfigurationMetadata.get(autoConfigurationClass, CONDITIONAL_ON_PROPERTY);
+        if (property == null || environment == null) {
+            return true;
+        }
+        String value = environment.getProperty(property);
+        boolean enabled = value == null
+                ? Boolean.parseBoolean(autoConfigurationMetadata.get(autoConfigurationClass, MATCH_IF_MISSING, "false"))
+                : "true".equalsIgnoreCase(value);
+        if (!enabled) {
+            log.debug("Skipping auto configuration {}, {} is not true", autoConfigurationClass, property);
+        }
+        return enabled;
+    }
+
+}
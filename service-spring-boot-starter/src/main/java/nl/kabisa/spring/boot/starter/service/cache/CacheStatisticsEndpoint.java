@@ -0,0 +1,75 @@
+package nl.kabisa.spring.boot.starter.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.CacheManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint 'cachestats' with the statistics and hit ratio of the Caffeine caches per cache manager, caches
+ * of other providers are left out.
+ */
+@Endpoint(id = "cachestats")
+public class CacheStatisticsEndpoint {
+
+    /**
+     * The statistics of a cache since it was created, the hit ratio is null before the first request.
+     */
+    public record CacheStatistics(long size, long hits, long misses, Double hitRatio, long evictions, long loads,
+                                  long loadFailures, double averageLoadMs) {
+
+        static CacheStatistics of(Cache<?, ?> cache) {
+            CacheStats stats = cache.stats();
+            return new CacheStatistics(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                    stats.requestCount() == 0 ? null : stats.hitRate(), stats.evictionCount(), stats.loadCount(),
+                    stats.loadFailureCount(), stats.averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private final Map<String, CacheManager> cacheManagers;
+
+    public CacheStatisticsEndpoint(Map<String, CacheManager> cacheManagers) {
+        this.cacheManagers = cacheManagers;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, CacheStatistics>> cachestats() {
+        Map<String, Map<String, CacheStatistics>> result = new LinkedHashMap<>();
+        cacheManagers.forEach((managerName, cacheManager) -> {
+            Map<String, CacheStatistics> caches = new LinkedHashMap<>();
+            cacheManager.getCacheNames().stream().sorted().forEach(name -> {
+                CacheStatistics statistics = statistics(cacheManager, name);
+                if (statistics != null) {
+                    caches.put(name, statistics);
+                }
+            });
+            result.put(managerName, caches);
+        });
+        return result;
+    }
+
+    /**
+     * The statistics of the cache with the name, null (a 404) when no cache manager has a Caffeine cache with it.
+     */
+    @ReadOperation
+    public CacheStatistics cache(@Selector String name) {
+        return cacheManagers.values().stream()
+                .filter(cacheManager -> cacheManager.getCacheNames().contains(name))
+                .map(cacheManager -> statistics(cacheManager, name))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static CacheStatistics statistics(CacheManager cacheManager, String name) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(name);
+        return cache != null && cache.getNativeCache() instanceof Cache<?, ?> caffeine ? CacheStatistics.of(caffeine) : null;
+    }
+}
@@ -0,0 +1,174 @@
+package nl.kabisa.spring.boot.starter.service.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This configuration class customizes the Caffeine {@link CacheManager} of Spring Boot, used for method-level caching
+ * when the application enables it with @EnableCaching: every cache is bounded and records statistics. Caches in
+ * 'caches' have their own spec, other caches are created on first use with the defaults. The spring.cache properties,
+ * e.g. spring.cache.type or spring.cache.caffeine.spec, and a CacheManager bean of the application take precedence.
+ * The {@link CaffeineCacheEnvironmentPostProcessor} defaults spring.cache.type to caffeine, so a JCache provider on
+ * the classpath is not picked instead.
+ * <p>
+ * Spring Boot binds the statistics of the caches that exist at startup to Micrometer in the metrics 'cache.*', the
+ * hit ratios are available in the actuator endpoint 'cachestats'. You can disable this configuration with:
+ * <p>
+ * service.starter.cache.enabled=false
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.cache")
+@ConditionalOnClass({Caffeine.class, CaffeineCacheManager.class})
+@ConditionalOnProperty(prefix = "service.starter.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+class CaffeineCacheAutoConfiguration {
+
+    /**
+     * Is the customization of the Caffeine cache manager enabled? (default is true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Are caches that are not in 'caches' created on first use with the defaults? (default is true)
+     */
+    private boolean dynamic = true;
+
+    /**
+     * The spec of caches, and of the settings a cache in 'caches' does not set. (default is maximum-size=1000)
+     */
+    private Spec defaults = Spec.ofMaximumSize(1000);
+
+    /**
+     * The spec per cache name, e.g. service.starter.cache.caches.quotes.expire-after-write=10m (default is no caches)
+     */
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    /**
+     * The Caffeine spec of a cache, settings that are not set are taken from the defaults.
+     */
+    @Data
+    public static class Spec {
+
+        /**
+         * The maximum number of entries, the least recently or frequently used are evicted.
+         */
+        private Long maximumSize;
+
+        /**
+         * The time an entry is kept after it is written.
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * The time after a write at which the next read reloads the entry in the background, the old value is served
+         * until it is reloaded. This requires a CacheLoader bean.
+         */
+        private Duration refreshAfterWrite;
+
+        /**
+         * Are the keys weak references? Keys are then compared by identity instead of equals, so this only fits
+         * caches keyed by long-lived objects.
+         */
+        private Boolean weakKeys;
+
+        static Spec ofMaximumSize(long maximumSize) {
+            Spec result = new Spec();
+            result.setMaximumSize(maximumSize);
+            return result;
+        }
+
+        Caffeine<Object, Object> toCaffeine(Spec defaults) {
+            Caffeine<Object, Object> result = Caffeine.newBuilder().recordStats();
+            Long size = maximumSize != null ? maximumSize : defaults.getMaximumSize();
+            if (size != null) {
+                result.maximumSize(size);
+            }
+            Duration expire = expireAfterWrite != null ? expireAfterWrite : defaults.getExpireAfterWrite();
+            if (expire != null) {
+                result.expireAfterWrite(expire);
+            }
+            Duration refresh = getRefreshAfterWrite(defaults);
+            if (refresh != null) {
+                result.refreshAfterWrite(refresh);
+            }
+            if (weakKeys != null ? weakKeys : Boolean.TRUE.equals(defaults.getWeakKeys())) {
+                result.weakKeys();
+            }
+            return result;
+        }
+
+        Duration getRefreshAfterWrite(Spec defaults) {
+            return refreshAfterWrite != null ? refreshAfterWrite : defaults.getRefreshAfterWrite();
+        }
+    }
+
+    /**
+     * The builder of the dynamic caches, the spring.cache.caffeine.spec takes precedence.
+     */
+    @Bean
+    @ConditionalOnMissingBean({Caffeine.class, CaffeineSpec.class})
+    Caffeine<Object, Object> caffeine(ObjectProvider<CacheLoader<Object, Object>> cacheLoader) {
+        if (cacheLoader.getIfAvailable() == null) {
+            checkRefreshAfterWrite("defaults", defaults);
+        }
+        return defaults.toCaffeine(defaults);
+    }
+
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> caffeineCacheManagerCustomizer(ObjectProvider<CacheLoader<Object, Object>> cacheLoader) {
+        return cacheManager -> {
+            CacheLoader<Object, Object> loader = cacheLoader.getIfAvailable();
+            if (!dynamic) {
+                // keeps the caches of spring.cache.cache-names
+                cacheManager.setCacheNames(List.of());
+            }
+            caches.forEach((name, spec) -> {
+                Caffeine<Object, Object> caffeine = spec.toCaffeine(defaults);
+                if (loader != null) {
+                    cacheManager.registerCustomCache(name, caffeine.build(loader));
+                } else {
+                    checkRefreshAfterWrite(name, spec);
+                    cacheManager.registerCustomCache(name, caffeine.build());
+                }
+            });
+            log.info("Configuring Caffeine cache manager with caches {}, dynamic caches: {}", caches.keySet(), dynamic);
+        };
+    }
+
+    private void checkRefreshAfterWrite(String name, Spec spec) {
+        if (spec.getRefreshAfterWrite(defaults) != null) {
+            throw new IllegalStateException("Cache '" + name + "' has a refresh-after-write, which requires a CacheLoader bean");
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class CacheStatisticsEndpointConfiguration {
+
+        @Bean
+        CacheStatisticsEndpoint cacheStatisticsEndpoint(Map<String, CacheManager> cacheManagers) {
+            return new CacheStatisticsEndpoint(cacheManagers);
+        }
+    }
+}
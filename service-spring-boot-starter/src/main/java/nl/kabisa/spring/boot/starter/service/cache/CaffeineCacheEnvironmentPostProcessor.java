@@ -0,0 +1,49 @@
+package nl.kabisa.spring.boot.starter.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+
+/**
+ * This environment post processor defaults spring.cache.type to caffeine while the {@link CaffeineCacheAutoConfiguration}
+ * is enabled. Spring Boot prefers a JCache provider over Caffeine when it detects the cache type, e.g. when the
+ * Hibernate second-level cache of the database starter is on the classpath, and the customization would then not be
+ * applied. A spring.cache.type of the application takes precedence.
+ * <p>
+ * You can disable this, together with the cache configuration, with:
+ * <p>
+ * service.starter.cache.enabled=false
+ */
+@Slf4j
+class CaffeineCacheEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    static final String NAME = "service-starter-cache";
+    static final String CACHE_TYPE = "spring.cache.type";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment env, SpringApplication application) {
+        ClassLoader classLoader = application != null ? application.getClassLoader() : ClassUtils.getDefaultClassLoader();
+        if (env.containsProperty(CACHE_TYPE) || env.getPropertySources().contains(NAME)
+                || !ClassUtils.isPresent("org.springframework.cache.caffeine.CaffeineCacheManager", classLoader)) {
+            return;
+        }
+        if (Binder.get(env).bind("service.starter.cache.enabled", Boolean.class).orElse(true)) {
+            log.debug("Defaulting {} to caffeine", CACHE_TYPE);
+            env.getPropertySources().addLast(new MapPropertySource(NAME, Map.of(CACHE_TYPE, "caffeine")));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        //must go after BootstrapEnvironmentPostProcessor
+        return Ordered.HIGHEST_PRECEDENCE + 13;
+    }
+
+}
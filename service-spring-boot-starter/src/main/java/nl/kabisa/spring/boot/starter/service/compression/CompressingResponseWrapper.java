@@ -0,0 +1,294 @@
+package nl.kabisa.spring.boot.starter.service.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Holds the first bytes of the body, up to the minimum size, until it is known whether the response is compressed:
+ * a response that reaches the minimum size, or that announces a Content-Length of at least the minimum size, with a
+ * compressible Content-Type and without a Content-Encoding is compressed while it is written. Smaller responses are
+ * written as is, with their Content-Length.
+ * <p>
+ * A 304 has no body: when it is set after the compression started, the compressed bytes and the Content-Encoding are
+ * dropped.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final ResponseEncoder encoder;
+    private final Predicate<String> compressibleContentType;
+    private final long minSize;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private OutputStream target;
+    private boolean compressing;
+    private boolean discarded;
+    private long contentLength = -1;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressingResponseWrapper(HttpServletResponse response, ResponseEncoder encoder, Predicate<String> compressibleContentType, long minSize) {
+        super(response);
+        this.encoder = encoder;
+        this.compressibleContentType = compressibleContentType;
+        this.minSize = minSize;
+    }
+
+    boolean isCompressing() {
+        return compressing;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (target == null) {
+            contentLength = len;
+        } else if (!compressing) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        if (sc == HttpServletResponse.SC_NOT_MODIFIED && compressing && !isCommitted()) {
+            stopCompressing();
+        }
+        super.setStatus(sc);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && value != null) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && value != null) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        if (outputStream == null) {
+            outputStream = new CompressingServletOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (outputStream != null && writer == null) {
+            throw new IllegalStateException("getOutputStream() has already been called for this response");
+        }
+        if (writer == null) {
+            outputStream = new CompressingServletOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (discarded) {
+            // the body of the error or the redirect is written by the container
+            super.flushBuffer();
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target == null) {
+            // everything is written when the buffer is flushed before the minimum size
+            decide(false);
+        }
+        target.flush();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        discard();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        discard();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        discard();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (target != null) {
+            target = null;
+            compressing = false;
+        }
+        pending = new ByteArrayOutputStream();
+        contentLength = -1;
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (pending != null) {
+            pending.reset();
+        } else if (compressing) {
+            try {
+                target = encoder.encode(super.getOutputStream());
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not restart the " + encoder.getEncoding() + " encoding", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the bytes held back and finishes the encoding, called when the response is complete.
+     */
+    void finish() throws IOException {
+        if (discarded || getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+            // a 304 of a conditional request has no body
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target == null) {
+            decide(false);
+        }
+        if (compressing) {
+            target.close();
+        } else {
+            target.flush();
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (discarded) {
+            return;
+        }
+        if (target == null) {
+            pending.write(b, off, len);
+            if (pending.size() >= minSize) {
+                decide(true);
+            }
+            return;
+        }
+        target.write(b, off, len);
+    }
+
+    private void decide(boolean minSizeReached) throws IOException {
+        boolean large = minSizeReached || contentLength >= minSize;
+        boolean compressible = compressibleContentType.test(getContentType())
+                && getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                && getHeader(HttpHeaders.CONTENT_RANGE) == null
+                && getStatus() != HttpServletResponse.SC_NO_CONTENT
+                && getStatus() != HttpServletResponse.SC_NOT_MODIFIED;
+        if (compressible) {
+            super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        compressing = compressible && large;
+        if (compressing) {
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, encoder.getEncoding());
+            target = encoder.encode(super.getOutputStream());
+        } else {
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+            target = super.getOutputStream();
+        }
+        if (pending != null) {
+            pending.writeTo(target);
+            pending = null;
+        }
+    }
+
+    /**
+     * Resets the response to drop the compressed bytes and the Content-Encoding, a header can not be removed otherwise,
+     * and restores the other headers.
+     */
+    private void stopCompressing() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : getHeaderNames()) {
+            if (!HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                headers.put(name, new ArrayList<>(getHeaders(name)));
+            }
+        }
+        String contentType = getContentType();
+        super.reset();
+        if (contentType != null) {
+            super.setContentType(contentType);
+        }
+        headers.forEach((name, values) -> values.forEach(value -> super.addHeader(name, value)));
+        target = null;
+        compressing = false;
+        discard();
+    }
+
+    private void discard() {
+        discarded = true;
+        pending = null;
+    }
+
+    private class CompressingServletOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            CompressingResponseWrapper.this.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
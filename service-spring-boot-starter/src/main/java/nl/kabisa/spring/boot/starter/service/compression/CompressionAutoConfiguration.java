@@ -0,0 +1,102 @@
+package nl.kabisa.spring.boot.starter.service.compression;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.FilterOrders;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.MimeType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This configuration class compresses JSON responses above a minimum size, see {@link CompressionFilter}. gzip is
+ * always available, Brotli and zstd when brotli4j or zstd-jni is on the classpath of the service. A
+ * {@link ResponseEncoder} bean adds an encoding.
+ * <p>
+ * You can disable this configuration with:
+ * <p>
+ * service.starter.compression.enabled=false
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.compression")
+@ConditionalOnProperty(prefix = "service.starter.compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(OncePerRequestFilter.class)
+@Slf4j
+class CompressionAutoConfiguration {
+
+    /**
+     * Is the response compression enabled? (default is true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * The minimum size of a response to compress. (default is 2KB)
+     */
+    private DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+    /**
+     * The compression level, fastest, balanced or smallest. (default is balanced)
+     */
+    private CompressionLevel level = CompressionLevel.BALANCED;
+
+    /**
+     * The encodings in order of preference, unavailable encodings are skipped. (default is br, zstd, gzip)
+     */
+    private List<String> encodings = new ArrayList<>(List.of("br", "zstd", "gzip"));
+
+    /**
+     * The Content-Types to compress. (default is application/json and application/*+json)
+     */
+    private List<MimeType> mimeTypes = new ArrayList<>(List.of(MimeType.valueOf("application/json"), MimeType.valueOf("application/*+json")));
+
+    /**
+     * The Content-Types that are already compressed and never compressed again.
+     * (default is image/*, audio/*, video/*, application/zip, application/gzip, application/zstd)
+     */
+    private List<MimeType> excludedMimeTypes = new ArrayList<>(List.of(MimeType.valueOf("image/*"), MimeType.valueOf("audio/*"),
+            MimeType.valueOf("video/*"), MimeType.valueOf("application/zip"), MimeType.valueOf("application/gzip"),
+            MimeType.valueOf("application/zstd")));
+
+    @Bean
+    FilterRegistrationBean<CompressionFilter> compressionFilter(ObjectProvider<ResponseEncoder> additionalEncoders) {
+        Map<String, ResponseEncoder> available = new LinkedHashMap<>();
+        additionalEncoders.orderedStream().forEach(encoder -> available.putIfAbsent(encoder.getEncoding(), encoder));
+        available.putIfAbsent("gzip", new GzipResponseEncoder(level.getGzip()));
+        if (encodings.contains("br") && ReflectiveResponseEncoder.isPresent(ReflectiveResponseEncoder.BROTLI_OUTPUT_STREAM)) {
+            try {
+                available.putIfAbsent("br", new ReflectiveResponseEncoder.Brotli(level.getBrotli()));
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("Brotli is on the classpath but not available: {}", e.toString());
+            }
+        }
+        if (encodings.contains("zstd") && ReflectiveResponseEncoder.isPresent(ReflectiveResponseEncoder.ZSTD_OUTPUT_STREAM)) {
+            available.putIfAbsent("zstd", new ReflectiveResponseEncoder.Zstd(level.getZstd()));
+        }
+        List<ResponseEncoder> encoders = available.values().stream()
+                .filter(encoder -> encodings.contains(encoder.getEncoding()))
+                .sorted(Comparator.comparingInt(encoder -> encodings.indexOf(encoder.getEncoding())))
+                .toList();
+        log.info("Configuring response compression, encodings: {}, level: {}, min response size: {}",
+                encoders.stream().map(ResponseEncoder::getEncoding).toList(), level, minResponseSize);
+
+        FilterRegistrationBean<CompressionFilter> result = new FilterRegistrationBean<>(
+                new CompressionFilter(encoders, mimeTypes, excludedMimeTypes, minResponseSize.toBytes()));
+        result.setOrder(FilterOrders.COMPRESSION);
+        return result;
+    }
+}
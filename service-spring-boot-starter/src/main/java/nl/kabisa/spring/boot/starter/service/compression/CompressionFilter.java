@@ -0,0 +1,106 @@
+package nl.kabisa.spring.boot.starter.service.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compresses responses with the first {@link ResponseEncoder} the client accepts. Only responses with a compressible
+ * Content-Type of at least the minimum size are compressed, see {@link CompressingResponseWrapper}.
+ * <p>
+ * The filter runs before the request logging, so the logged payload is the uncompressed body. An asynchronous
+ * request is finished after its last dispatch.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private final List<ResponseEncoder> encoders;
+    private final List<MimeType> mimeTypes;
+    private final List<MimeType> excludedMimeTypes;
+    private final long minSize;
+
+    public CompressionFilter(List<ResponseEncoder> encoders, List<MimeType> mimeTypes, List<MimeType> excludedMimeTypes, long minSize) {
+        this.encoders = List.copyOf(encoders);
+        this.mimeTypes = List.copyOf(mimeTypes);
+        this.excludedMimeTypes = List.copyOf(excludedMimeTypes);
+        this.minSize = minSize;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(response, CompressingResponseWrapper.class);
+        if (wrapper == null && !isAsyncDispatch(request) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            ResponseEncoder encoder = encoder(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (encoder != null) {
+                wrapper = new CompressingResponseWrapper(response, encoder, this::isCompressible, minSize);
+                response = wrapper;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+        if (wrapper != null && !isAsyncStarted(request)) {
+            wrapper.finish();
+        }
+    }
+
+    /**
+     * The first encoder, in the order of preference of the service, that the Accept-Encoding allows.
+     */
+    ResponseEncoder encoder(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return null;
+        }
+        Map<String, Double> accepted = new HashMap<>();
+        for (String token : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+            String[] parts = StringUtils.tokenizeToStringArray(token, ";");
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parts[i].substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            accepted.put(parts[0].toLowerCase(Locale.ROOT), quality);
+        }
+        double any = accepted.getOrDefault("*", 0.0);
+        return encoders.stream()
+                .filter(encoder -> accepted.getOrDefault(encoder.getEncoding(), any) > 0)
+                .findFirst()
+                .orElse(null);
+    }
+
+    boolean isCompressible(String contentType) {
+        if (!StringUtils.hasText(contentType)) {
+            return false;
+        }
+        try {
+            MimeType mimeType = MimeType.valueOf(contentType);
+            return excludedMimeTypes.stream().noneMatch(excluded -> excluded.includes(mimeType))
+                    && mimeTypes.stream().anyMatch(included -> included.includes(mimeType));
+        } catch (InvalidMimeTypeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package nl.kabisa.spring.boot.starter.service.compression;
+
+/**
+ * The compression level of the {@link ResponseEncoder}s, trading CPU for bandwidth.
+ */
+public enum CompressionLevel {
+
+    /**
+     * The least CPU per response, gzip 1, brotli 1, zstd 1.
+     */
+    FASTEST(1, 1, 1),
+
+    /**
+     * The default of the encodings, gzip 6, brotli 4, zstd 3.
+     */
+    BALANCED(6, 4, 3),
+
+    /**
+     * The smallest responses for dynamic content, gzip 9, brotli 9, zstd 12.
+     */
+    SMALLEST(9, 9, 12);
+
+    private final int gzip;
+    private final int brotli;
+    private final int zstd;
+
+    CompressionLevel(int gzip, int brotli, int zstd) {
+        this.gzip = gzip;
+        this.brotli = brotli;
+        this.zstd = zstd;
+    }
+
+    public int getGzip() {
+        return gzip;
+    }
+
+    public int getBrotli() {
+        return brotli;
+    }
+
+    public int getZstd() {
+        return zstd;
+    }
+}
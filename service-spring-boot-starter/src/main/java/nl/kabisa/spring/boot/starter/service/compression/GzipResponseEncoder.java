@@ -0,0 +1,32 @@
+package nl.kabisa.spring.boot.starter.service.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The gzip encoding of the JDK.
+ */
+public class GzipResponseEncoder implements ResponseEncoder {
+
+    private final int level;
+
+    public GzipResponseEncoder(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public String getEncoding() {
+        return "gzip";
+    }
+
+    @Override
+    public OutputStream encode(OutputStream out) throws IOException {
+        // sync flush, so a flush of a streaming response reaches the client
+        return new GZIPOutputStream(new NonClosingOutputStream(out), 8192, true) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+}
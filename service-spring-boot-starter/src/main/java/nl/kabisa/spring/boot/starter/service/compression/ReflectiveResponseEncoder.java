@@ -0,0 +1,94 @@
+package nl.kabisa.spring.boot.starter.service.compression;
+
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * The Brotli (brotli4j) and zstd (zstd-jni) encodings, when the library is on the classpath of the service. The
+ * libraries are optional and bring native code, so the starter does not depend on them and creates their streams
+ * reflectively.
+ */
+abstract class ReflectiveResponseEncoder implements ResponseEncoder {
+
+    static final String BROTLI_OUTPUT_STREAM = "com.aayushatharva.brotli4j.encoder.BrotliOutputStream";
+    static final String ZSTD_OUTPUT_STREAM = "com.github.luben.zstd.ZstdOutputStream";
+
+    static boolean isPresent(String className) {
+        return ClassUtils.isPresent(className, ReflectiveResponseEncoder.class.getClassLoader());
+    }
+
+    static Class<?> load(String className) {
+        return ClassUtils.resolveClassName(className, ReflectiveResponseEncoder.class.getClassLoader());
+    }
+
+    @Override
+    public OutputStream encode(OutputStream out) throws IOException {
+        try {
+            return create(new NonClosingOutputStream(out));
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException("Could not create the " + getEncoding() + " encoder", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create the " + getEncoding() + " encoder", e);
+        }
+    }
+
+    protected abstract OutputStream create(OutputStream out) throws ReflectiveOperationException;
+
+    /**
+     * new BrotliOutputStream(out, new Encoder.Parameters().setQuality(quality))
+     */
+    static class Brotli extends ReflectiveResponseEncoder {
+
+        private final Object parameters;
+        private final Class<?> streamClass;
+        private final Class<?> parametersClass;
+
+        Brotli(int quality) throws ReflectiveOperationException {
+            load("com.aayushatharva.brotli4j.Brotli4jLoader").getMethod("ensureAvailability").invoke(null);
+            this.streamClass = load(BROTLI_OUTPUT_STREAM);
+            this.parametersClass = load("com.aayushatharva.brotli4j.encoder.Encoder$Parameters");
+            this.parameters = parametersClass.getConstructor().newInstance();
+            parametersClass.getMethod("setQuality", int.class).invoke(parameters, quality);
+        }
+
+        @Override
+        public String getEncoding() {
+            return "br";
+        }
+
+        @Override
+        protected OutputStream create(OutputStream out) throws ReflectiveOperationException {
+            return (OutputStream) streamClass.getConstructor(OutputStream.class, parametersClass).newInstance(out, parameters);
+        }
+    }
+
+    /**
+     * new ZstdOutputStream(out, level)
+     */
+    static class Zstd extends ReflectiveResponseEncoder {
+
+        private final int level;
+        private final Class<?> streamClass;
+
+        Zstd(int level) {
+            this.level = level;
+            this.streamClass = load(ZSTD_OUTPUT_STREAM);
+        }
+
+        @Override
+        public String getEncoding() {
+            return "zstd";
+        }
+
+        @Override
+        protected OutputStream create(OutputStream out) throws ReflectiveOperationException {
+            return (OutputStream) streamClass.getConstructor(OutputStream.class, int.class).newInstance(out, level);
+        }
+    }
+}
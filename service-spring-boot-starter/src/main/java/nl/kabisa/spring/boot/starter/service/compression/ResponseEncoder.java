@@ -0,0 +1,20 @@
+package nl.kabisa.spring.boot.starter.service.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A content encoding of the {@link CompressionFilter}, define a bean to add an encoding.
+ */
+public interface ResponseEncoder {
+
+    /**
+     * @return the Content-Encoding, e.g. gzip
+     */
+    String getEncoding();
+
+    /**
+     * @return a stream that writes the encoded bytes to out, closing it finishes the encoding but not out
+     */
+    OutputStream encode(OutputStream out) throws IOException;
+}
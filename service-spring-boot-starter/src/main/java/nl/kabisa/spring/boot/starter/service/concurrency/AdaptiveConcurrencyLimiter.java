@@ -0,0 +1,111 @@
+package nl.kabisa.spring.boot.starter.service.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of requests in flight with a limit that adapts to the observed latency (AIMD, additive increase
+ * multiplicative decrease). The latency of every completed request updates a short-term and a long-term average: while
+ * the short-term average stays within the tolerance of the long-term average the limit grows by one, as soon as it
+ * exceeds the tolerance the limit is multiplied by the backoff ratio. Queueing in the service shows as a rising
+ * latency, so the limit settles just below the concurrency the service can handle.
+ * <p>
+ * The limit only grows while at least half of it is in use, an idle service does not build up a limit it never
+ * tested. Acquiring a permit is a CAS on the in-flight counter, only the samples of completed requests are
+ * serialized.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final double lowPriorityShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile double limit;
+    private double shortLatency;
+    private double longLatency;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double tolerance,
+                                      double lowPriorityShare) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limits, min: " + minLimit + ", max: " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.lowPriorityShare = lowPriorityShare;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Acquires a permit for a request of the route priority, a critical request always gets one.
+     *
+     * @return false when the request must be rejected
+     */
+    public boolean tryAcquire(RoutePriority priority) {
+        if (priority == RoutePriority.CRITICAL) {
+            inFlight.incrementAndGet();
+            return true;
+        }
+        int max = priority == RoutePriority.LOW ? Math.max(1, (int) (limit * lowPriorityShare)) : (int) limit;
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= max) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases the permit of a completed request, the latency of a non critical request updates the limit.
+     */
+    public void release(RoutePriority priority, long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (priority != RoutePriority.CRITICAL) {
+            sample(latencyNanos, current);
+        }
+    }
+
+    synchronized void sample(long latencyNanos, int inFlightAtCompletion) {
+        if (longLatency == 0) {
+            shortLatency = latencyNanos;
+            longLatency = latencyNanos;
+            return;
+        }
+        shortLatency += (latencyNanos - shortLatency) / SHORT_WINDOW;
+        longLatency += (latencyNanos - longLatency) / LONG_WINDOW;
+
+        if (shortLatency > longLatency * tolerance) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            // measure again at the new limit, instead of backing off on every request still in the average
+            shortLatency = longLatency;
+        } else if (inFlightAtCompletion * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * The number of rejected requests since startup.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,124 @@
+package nl.kabisa.spring.boot.starter.service.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.FilterOrders;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This configuration class limits the number of requests in flight with an adaptive limit, see
+ * {@link AdaptiveConcurrencyLimiter}. Requests above the limit are rejected immediately with a 503 Problem and a
+ * Retry-After header, instead of queueing in the thread pool of the web server. Critical routes, by default the
+ * health endpoints, always pass.
+ * <p>
+ * You can enable this configuration with:
+ * <p>
+ * service.starter.concurrency.enabled=true
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.concurrency")
+@ConditionalOnProperty(prefix = "service.starter.concurrency", name = "enabled", havingValue = "true", matchIfMissing = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(OncePerRequestFilter.class)
+@Slf4j
+class ConcurrencyLimitAutoConfiguration {
+
+    /**
+     * Is the adaptive concurrency limit enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * The limit at startup. (default is 20)
+     */
+    private int initialLimit = 20;
+
+    /**
+     * The lowest limit. (default is 4)
+     */
+    private int minLimit = 4;
+
+    /**
+     * The highest limit, keep it below the maximum number of threads of the web server. (default is 180)
+     */
+    private int maxLimit = 180;
+
+    /**
+     * The limit is multiplied by this ratio when the latency rises. (default is 0.9)
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * The latency rises when the recent latency exceeds the long-term latency by this factor. (default is 2.0)
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * The share of the limit that low priority routes can use. (default is 0.5)
+     */
+    private double lowPriorityShare = 0.5;
+
+    /**
+     * The Retry-After of a rejected request. (default is 1s)
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * The priority of routes without a matching pattern. (default is normal)
+     */
+    private RoutePriority defaultPriority = RoutePriority.NORMAL;
+
+    /**
+     * The priority per route pattern, e.g. service.starter.concurrency.route-priorities[/api/reports/**]=low
+     * (default is critical for the health endpoints)
+     */
+    private Map<String, RoutePriority> routePriorities = new LinkedHashMap<>(Map.of("/actuator/health/**", RoutePriority.CRITICAL));
+
+    @Bean
+    AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        log.info("Configuring adaptive concurrency limit, initial: {}, min: {}, max: {}", initialLimit, minLimit, maxLimit);
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance, lowPriorityShare);
+    }
+
+    @Bean
+    FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> result = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiter, routePriorities, defaultPriority, retryAfter));
+        result.setOrder(FilterOrders.CONCURRENCY_LIMIT);
+        return result;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class ConcurrencyLimitMetricsConfiguration {
+
+        @Bean
+        MeterBinder concurrencyLimitMetrics(AdaptiveConcurrencyLimiter limiter) {
+            return registry -> {
+                Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                        .description("Adaptive limit of requests in flight").register(registry);
+                Gauge.builder("http.server.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                        .description("Requests in flight").register(registry);
+                FunctionCounter.builder("http.server.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                        .description("Requests rejected by the concurrency limit").register(registry);
+            };
+        }
+    }
+}
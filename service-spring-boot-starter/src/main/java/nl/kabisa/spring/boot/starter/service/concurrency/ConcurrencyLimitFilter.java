@@ -0,0 +1,100 @@
+package nl.kabisa.spring.boot.starter.service.concurrency;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.RouteMatcher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Rejects a request with a 503 and a Retry-After header when the {@link AdaptiveConcurrencyLimiter} has no permit for
+ * it.
+ * <p>
+ * The priority of a request is the one of the most specific matching route pattern, see {@link RouteMatcher}.
+ * An asynchronous request holds its permit until the asynchronous processing completes.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String MSG_OVERLOADED = "The service is overloaded, retry the request later";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RouteMatcher<RoutePriority> routePriorities;
+    private final String retryAfter;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, Map<String, RoutePriority> routePriorities,
+                                  RoutePriority defaultPriority, Duration retryAfter) {
+        this.limiter = limiter;
+        this.routePriorities = new RouteMatcher<>(routePriorities, defaultPriority);
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RoutePriority priority = priority(urlPathHelper.getPathWithinApplication(request));
+        if (!limiter.tryAcquire(priority)) {
+            log.debug("Rejected {} {}, concurrency limit {} reached", request.getMethod(), request.getRequestURI(), limiter.getLimit());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), MSG_OVERLOADED);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(priority, start));
+            } else {
+                limiter.release(priority, System.nanoTime() - start);
+            }
+        }
+    }
+
+    RoutePriority priority(String path) {
+        return routePriorities.match(path);
+    }
+
+    private class ReleaseListener implements AsyncListener {
+
+        private final RoutePriority priority;
+        private final long start;
+
+        ReleaseListener(RoutePriority priority, long start) {
+            this.priority = priority;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // also called after a timeout or an error
+            limiter.release(priority, System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package nl.kabisa.spring.boot.starter.service.concurrency;
+
+/**
+ * The priority of a route for the {@link AdaptiveConcurrencyLimiter}.
+ */
+public enum RoutePriority {
+
+    /**
+     * Always passes and is not measured, e.g. the health endpoints.
+     */
+    CRITICAL,
+
+    /**
+     * Passes while the requests in flight are below the limit.
+     */
+    NORMAL,
+
+    /**
+     * Passes while the requests in flight are below the share of the limit for low priority routes.
+     */
+    LOW
+}
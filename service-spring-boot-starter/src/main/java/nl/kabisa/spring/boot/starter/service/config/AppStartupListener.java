@@ -4,20 +4,47 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.StreamSupport;
 
 /**
  * This {@link ApplicationListener} is used to log some application specific
  * version information.
  *
  * This information can be used on Grafana or Splunk like dashboards to monitor the LCM of services.
- *
+ * <p>
+ * When the application startup is recorded by a {@link BufferingApplicationStartup} the slowest startup steps
+ * are logged as well, so startup regressions can be traced back to a phase (auto configuration, bean creation,
+ * Flyway, JPA bootstrap, web server start).
  */
 public class AppStartupListener implements ApplicationListener<ApplicationReadyEvent> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AppStartupListener.class);
 
+    /**
+     * The number of slowest startup steps to log.
+     */
+    private final int topSteps;
+
+    public AppStartupListener() {
+        this(10);
+    }
+
+    public AppStartupListener(int topSteps) {
+        this.topSteps = topSteps;
+    }
+
     /**
      * This event is executed as late as possible to indicate that
      * the application is ready to service requests.
@@ -36,6 +63,38 @@ public class AppStartupListener implements ApplicationListener<ApplicationReadyE
             // ignore, BuildProperties can only be created in case META-INF/build-info.properties file is present
             LOGGER.warn("BuildProperties are not logged, META-INF/build-info.properties file is not present");
         }
+        logStartupTimeline(event.getApplicationContext().getApplicationStartup(), event.getTimeTaken());
+    }
+
+    /**
+     * Logs the slowest recorded startup steps. The buffered timeline is not drained, so it stays available
+     * for the actuator 'startup' endpoint.
+     */
+    private void logStartupTimeline(ApplicationStartup applicationStartup, Duration timeTaken) {
+        if (topSteps <= 0 || !(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        final StartupTimeline timeline = buffering.getBufferedTimeline();
+        final Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        final List<StartupTimeline.TimelineEvent> slowest = timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(topSteps)
+                .toList();
+
+        StringBuilder msg = new StringBuilder();
+        msg.append("Application ready in ").append(timeTaken != null ? timeTaken.toMillis() : "?").append(" ms")
+                .append(" (JVM start until context creation: ").append(Duration.between(jvmStart, timeline.getStartTime()).toMillis())
+                .append(" ms, recorded steps: ").append(timeline.getEvents().size()).append(")")
+                .append(", ").append(slowest.size()).append(" slowest startup steps:");
+        slowest.forEach(e -> msg.append("\n").append(String.format("%8d ms  ", e.getDuration().toMillis())).append(describe(e.getStartupStep())));
+        LOGGER.info(msg.toString());
+    }
+
+    private String describe(StartupStep step) {
+        StringBuilder description = new StringBuilder(step.getName());
+        StreamSupport.stream(step.getTags().spliterator(), false)
+                .forEach(tag -> description.append(" ").append(tag.getKey()).append("=").append(tag.getValue()));
+        return description.toString();
     }
 }
 
@@ -6,6 +6,7 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
 
 /**
  * Auto configure listeners for application.
@@ -16,11 +17,12 @@ import org.springframework.context.annotation.Bean;
 public class ApplicationListenerConfig {
     /**
      * Can be disabled through service.starter.application.listener set up as boolean true.
+     * The number of slowest startup steps logged is set with service.starter.application.startup.top-steps.
      *
      * @return {@link ApplicationListener}
      */
     @Bean
-    public ApplicationListener<ApplicationReadyEvent> applicationListener() {
-        return new AppStartupListener();
+    public ApplicationListener<ApplicationReadyEvent> applicationListener(Environment environment) {
+        return new AppStartupListener(environment.getProperty(ApplicationStartupEnvironmentPostProcessor.PREFIX + ".top-steps", Integer.class, 10));
     }
 }
@@ -0,0 +1,55 @@
+package nl.kabisa.spring.boot.starter.service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.metrics.ApplicationStartup;
+
+/**
+ * This environment post processor installs a {@link BufferingApplicationStartup} on the {@link SpringApplication}
+ * so every startup step of the application context (configuration class parsing, bean creation, Flyway, JPA
+ * bootstrap, web server start) is recorded.
+ * <p>
+ * Environment post processors run before the application context is created, which is the last moment the
+ * application startup can be replaced. The recorded timeline is logged by the {@link AppStartupListener} and
+ * available in the actuator 'startup' endpoint, when a service exposes it.
+ * <p>
+ * You can disable the recording with:
+ * <p>
+ * service.starter.application.startup.enabled=false
+ */
+@Slf4j
+class ApplicationStartupEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    static final String PREFIX = "service.starter.application.startup";
+
+    /**
+     * The default maximum number of recorded startup steps.
+     */
+    static final int DEFAULT_CAPACITY = 8192;
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment env, SpringApplication application) {
+        if (application == null || application.getApplicationStartup() != ApplicationStartup.DEFAULT) {
+            // an application startup is already configured by the application itself
+            return;
+        }
+        Binder binder = Binder.get(env);
+        if (binder.bind(PREFIX + ".enabled", Boolean.class).orElse(true)) {
+            int capacity = binder.bind(PREFIX + ".capacity", Integer.class).orElse(DEFAULT_CAPACITY);
+            log.debug("Recording application startup steps, capacity: {}", capacity);
+            application.setApplicationStartup(new BufferingApplicationStartup(capacity));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        //must go after BootstrapEnvironmentPostProcessor
+        return Ordered.HIGHEST_PRECEDENCE + 12;
+    }
+
+}
@@ -0,0 +1,59 @@
+package nl.kabisa.spring.boot.starter.service.etag;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.FilterOrders;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This configuration class sets an ETag on GET responses and answers a matching If-None-Match with a 304, see
+ * {@link ETagFilter}. Controllers can set a cheaper {@link VersionETag} instead.
+ * <p>
+ * You can enable this configuration with:
+ * <p>
+ * service.starter.etag.enabled=true
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.etag")
+@ConditionalOnProperty(prefix = "service.starter.etag", name = "enabled", havingValue = "true", matchIfMissing = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(OncePerRequestFilter.class)
+@Slf4j
+class ETagAutoConfiguration {
+
+    /**
+     * Is the ETag of GET responses enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * The body held until the ETag is set, a larger body is sent without ETag. (default is 64KB)
+     */
+    private DataSize maxBufferSize = DataSize.ofKilobytes(64);
+
+    /**
+     * Route patterns without ETag. (default is the actuator endpoints)
+     */
+    private List<String> excludePatterns = new ArrayList<>(List.of("/actuator/**"));
+
+    @Bean
+    FilterRegistrationBean<ETagFilter> etagFilter() {
+        log.info("Configuring ETags, max buffer size: {}", maxBufferSize);
+        FilterRegistrationBean<ETagFilter> result = new FilterRegistrationBean<>(
+                new ETagFilter((int) maxBufferSize.toBytes(), excludePatterns));
+        result.setOrder(FilterOrders.ETAG);
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package nl.kabisa.spring.boot.starter.service.etag;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import nl.kabisa.spring.boot.starter.service.filter.RouteMatcher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Sets a weak ETag, the MD5 of the body, on successful GET responses and answers a matching If-None-Match with a 304.
+ * The body is hashed while it is written and held up to the maximum buffer size, see {@link HashingResponseWrapper},
+ * so the ETag is set before the response is committed. Unlike the ShallowEtagHeaderFilter a larger body is not
+ * copied, it is sent without ETag.
+ * <p>
+ * A response with its own ETag, e.g. a {@link VersionETag}, or with Cache-Control no-store is left as is.
+ */
+public class ETagFilter extends OncePerRequestFilter {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private final int maxBufferSize;
+    private final List<String> excludePatterns;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public ETagFilter(int maxBufferSize, List<String> excludePatterns) {
+        this.maxBufferSize = maxBufferSize;
+        this.excludePatterns = List.copyOf(excludePatterns);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            // the body of a HEAD request is discarded before it reaches the filter
+            return true;
+        }
+        String path = urlPathHelper.getPathWithinApplication(request);
+        return RouteMatcher.matchesAny(excludePatterns, path);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HashingResponseWrapper wrapper = WebUtils.getNativeResponse(response, HashingResponseWrapper.class);
+        if (wrapper == null && !isAsyncDispatch(request)) {
+            // the request logging holds the complete body already
+            boolean holding = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null;
+            wrapper = new HashingResponseWrapper(response, maxBufferSize, holding);
+            response = wrapper;
+        }
+
+        filterChain.doFilter(request, response);
+        if (wrapper != null && !isAsyncStarted(request)) {
+            updateResponse(request, wrapper);
+            wrapper.complete();
+        }
+    }
+
+    private void updateResponse(HttpServletRequest request, HashingResponseWrapper response) {
+        String hash = response.hash();
+        if (hash == null || response.isCommitted() || response.getStatus() != HttpServletResponse.SC_OK) {
+            return;
+        }
+        String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null && cacheControl.contains("no-store")) {
+            return;
+        }
+
+        String etag = WEAK_PREFIX + "\"0" + hash + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.resetBuffer();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+    }
+
+    /**
+     * The weak comparison of If-None-Match, see RFC 9110 13.1.2.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        String opaque = etag.startsWith(WEAK_PREFIX) ? etag.substring(2) : etag;
+        for (String candidate : StringUtils.tokenizeToStringArray(ifNoneMatch, ",")) {
+            if ("*".equals(candidate) || opaque.equals(candidate.startsWith(WEAK_PREFIX) ? candidate.substring(2) : candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,192 @@
+package nl.kabisa.spring.boot.starter.service.etag;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Updates an MD5 digest with every byte of the body and holds the body, up to the maximum buffer size, until the
+ * ETag is known. The held body only takes the memory of its size, unlike a raised buffer of the web server, and a
+ * 304 drops it before anything reaches the response, e.g. the compression. A larger body is passed on and sent
+ * without ETag. The hashing stops, and the body is passed on, when the handler sets its own ETag.
+ * <p>
+ * When the request logging captures the body nothing is held, the body is hashed on its way to the response. Flushes
+ * of the body, e.g. by the message converters, are only passed on with the body.
+ */
+class HashingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final MessageDigest digest;
+    private final int maxBufferSize;
+    private final boolean holding;
+    private ByteArrayOutputStream held;
+    private boolean passedOn;
+    private boolean hashing = true;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * @param holding should the body be held? false when a wrapper of the response captures it already
+     */
+    HashingResponseWrapper(HttpServletResponse response, int maxBufferSize, boolean holding) {
+        super(response);
+        this.maxBufferSize = maxBufferSize;
+        this.holding = holding;
+        this.held = holding ? new ByteArrayOutputStream() : null;
+        try {
+            this.digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    /**
+     * @return the hex digest of the body, or null when the handler set its own ETag or the body is passed on
+     */
+    String hash() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return isHashing() && !passedOn ? HexFormat.of().formatHex(digest.digest()) : null;
+    }
+
+    /**
+     * Writes the held body to the response, a 304 has no body. Called when the response is complete.
+     */
+    void complete() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (held != null && getStatus() != HttpServletResponse.SC_NOT_MODIFIED) {
+            held.writeTo(super.getOutputStream());
+        }
+        held = null;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        if (outputStream == null) {
+            outputStream = new HashingServletOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (outputStream != null && writer == null) {
+            throw new IllegalStateException("getOutputStream() has already been called for this response");
+        }
+        if (writer == null) {
+            outputStream = new HashingServletOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        passOn();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        digest.reset();
+        held = holding ? new ByteArrayOutputStream() : null;
+        passedOn = false;
+        hashing = true;
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        digest.reset();
+        held = holding ? new ByteArrayOutputStream() : null;
+        passedOn = false;
+    }
+
+    private boolean isHashing() {
+        if (hashing && getHeader(HttpHeaders.ETAG) != null) {
+            hashing = false;
+        }
+        return hashing;
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (isHashing()) {
+            digest.update(b, off, len);
+        } else {
+            passOn();
+        }
+        if (held != null && held.size() + len > maxBufferSize) {
+            passOn();
+        }
+        if (held != null) {
+            held.write(b, off, len);
+        } else {
+            super.getOutputStream().write(b, off, len);
+        }
+    }
+
+    private void passOn() throws IOException {
+        if (held != null) {
+            held.writeTo(super.getOutputStream());
+            held = null;
+            passedOn = true;
+        }
+    }
+
+    private class HashingServletOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            HashingResponseWrapper.this.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (passedOn) {
+                HashingResponseWrapper.super.getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            // a held body is written when the response is complete
+            if (held == null) {
+                HashingResponseWrapper.super.getOutputStream().close();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package nl.kabisa.spring.boot.starter.service.etag;
+
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Version based ETags for controllers, e.g. from the @Version of an entity. Checking the version before the resource
+ * is loaded answers an unchanged resource with a 304 without doing the expensive work:
+ * <pre>
+ * &#64;GetMapping("/quotes/{id}")
+ * public Quote quote(&#64;PathVariable long id, WebRequest request) {
+ *     if (VersionETag.checkNotModified(request, id, quoteRepository.findVersionById(id))) {
+ *         return null;
+ *     }
+ *     return mapper.map(quoteRepository.findWithAuthorById(id));
+ * }
+ * </pre>
+ * The ETag is weak: the version identifies the state of the resource, not the bytes of a representation, which may
+ * differ per Content-Encoding.
+ */
+public final class VersionETag {
+
+    private VersionETag() {
+    }
+
+    /**
+     * @return the weak ETag of the version, e.g. W/"3"
+     */
+    public static String of(Object version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * @return the weak ETag of the version of the resource with the id, e.g. W/"42-3"
+     */
+    public static String of(Object id, Object version) {
+        return "W/\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Sets the ETag of the version and checks the If-None-Match of the request, see
+     * {@link WebRequest#checkNotModified(String)}.
+     *
+     * @return true when the response is a 304 and the handler should return null
+     */
+    public static boolean checkNotModified(WebRequest request, Object id, Object version) {
+        return request.checkNotModified(of(id, version));
+    }
+}
@@ -0,0 +1,14 @@
+package nl.kabisa.spring.boot.starter.service.exception;
+
+/**
+ * Exception thrown when the body of a request exceeds the maximum size, while the body is read.
+ * This will result in a response status 413 (Payload Too Large).
+ */
+public class PayloadTooLargeException extends RuntimeException {
+    @java.io.Serial
+    private static final long serialVersionUID = -2350764108914381376L;
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
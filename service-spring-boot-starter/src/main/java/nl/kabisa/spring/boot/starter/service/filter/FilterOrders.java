@@ -0,0 +1,53 @@
+package nl.kabisa.spring.boot.starter.service.filter;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.Ordered;
+
+/**
+ * The orders of the servlet filters of the starter, in the order they run. A filter that is added to the starter gets
+ * its order here, so the sequence of all filters can be read in one place.
+ * <p>
+ * The filters before the security filter chain see every request, also the ones the security rejects. The filters
+ * after it only see authorized requests and know the authenticated principal.
+ */
+public final class FilterOrders {
+
+    /**
+     * Runs first, before the request logging buffers the body.
+     */
+    public static final int REQUEST_SIZE_LIMIT = Ordered.HIGHEST_PRECEDENCE;
+
+    /**
+     * Runs after the request size limit and before the request logging, which captures the uncompressed body.
+     */
+    public static final int COMPRESSION = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    /**
+     * Runs after the request size limit and the compression, before the security filter chain.
+     */
+    public static final int REQUEST_LOGGING = Ordered.HIGHEST_PRECEDENCE + 2;
+
+    /**
+     * Runs after the request logging, so rejected requests are logged, and before the security filter chain.
+     */
+    public static final int CONCURRENCY_LIMIT = Ordered.HIGHEST_PRECEDENCE + 3;
+
+    /**
+     * Runs after the compression and the request logging, so the hash is the one of the uncompressed body and a 304
+     * is logged and not compressed.
+     */
+    public static final int ETAG = Ordered.HIGHEST_PRECEDENCE + 4;
+
+    /**
+     * Runs after the security filter chain, so the authenticated principal is known.
+     */
+    public static final int RATE_LIMIT = SecurityProperties.DEFAULT_FILTER_ORDER + 1;
+
+    /**
+     * Runs after the security filter chain and the rate limit, a cached response is only served to authorized requests.
+     */
+    public static final int HTTP_CACHE = SecurityProperties.DEFAULT_FILTER_ORDER + 2;
+
+    private FilterOrders() {
+    }
+}
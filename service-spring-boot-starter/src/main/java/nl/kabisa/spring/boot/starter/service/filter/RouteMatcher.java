@@ -0,0 +1,49 @@
+package nl.kabisa.spring.boot.starter.service.filter;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Looks up the value of the most specific route pattern that matches a path, see {@link AntPathMatcher}, e.g. the
+ * pattern <code>/api/reports/**</code> wins from <code>/api/**</code> for the path <code>/api/reports/monthly</code>.
+ *
+ * @param <T> the type of the route values
+ */
+public final class RouteMatcher<T> {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final Map<String, T> routes;
+    private final T defaultValue;
+
+    /**
+     * @param routes       the values by route pattern
+     * @param defaultValue the value of a path that matches no route pattern, may be null
+     */
+    public RouteMatcher(Map<String, T> routes, T defaultValue) {
+        this.routes = Map.copyOf(routes);
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * The value of the most specific route pattern that matches the path, or the default value.
+     */
+    public T match(String path) {
+        Comparator<String> specificity = PATH_MATCHER.getPatternComparator(path);
+        return routes.keySet().stream()
+                .filter(pattern -> PATH_MATCHER.match(pattern, path))
+                .min(specificity)
+                .map(routes::get)
+                .orElse(defaultValue);
+    }
+
+    /**
+     * Does one of the patterns match the path?
+     */
+    public static boolean matchesAny(Collection<String> patterns, String path) {
+        return patterns.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+}
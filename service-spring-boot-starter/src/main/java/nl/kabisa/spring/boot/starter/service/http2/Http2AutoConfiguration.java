@@ -0,0 +1,98 @@
+package nl.kabisa.spring.boot.starter.service.http2;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * This configuration class enables HTTP/2 on the embedded Tomcat: h2 with ALPN on a connector with TLS, and h2c on a
+ * connector without TLS, with prior knowledge or with an 'Upgrade: h2c' request. HTTP/1.1 requests are still served on
+ * the same port. Settings made with 'server.http2.enabled' are combined, the stream settings below apply to both.
+ * <p>
+ * You can enable this configuration with:
+ * <p>
+ * service.starter.http2.enabled=true
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.http2")
+@ConditionalOnProperty(prefix = "service.starter.http2", name = "enabled", havingValue = "true", matchIfMissing = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({Tomcat.class, Http2Protocol.class})
+@Slf4j
+class Http2AutoConfiguration {
+
+    /**
+     * Is HTTP/2 enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Is cleartext HTTP/2 (h2c) accepted on a connector without TLS? Calls inside the mesh use h2c, the sidecar
+     * terminates TLS. (default is true)
+     */
+    private boolean cleartext = true;
+
+    /**
+     * The maximum number of concurrent streams per connection, a client waits for a stream above it. (default is 100)
+     */
+    private long maxConcurrentStreams = 100;
+
+    /**
+     * The maximum number of streams per connection that are executed at the same time, other streams wait for a
+     * thread. This keeps one connection from taking all request threads. (default is 20)
+     */
+    private int maxConcurrentStreamExecution = 20;
+
+    /**
+     * The initial flow control window of a stream, the request body a client sends before Tomcat reads it. A
+     * connection buffers at most max-concurrent-streams times this window. (default is 256KB)
+     */
+    private DataSize initialWindowSize = DataSize.ofKilobytes(256);
+
+    /**
+     * The time an idle HTTP/2 connection without open streams is kept open. (default is 20s)
+     */
+    private Duration keepAliveTimeout = Duration.ofSeconds(20);
+
+    @Bean
+    WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2TomcatCustomizer() {
+        log.info("Configuring HTTP/2, cleartext: {}, max concurrent streams: {}, initial window size: {}",
+                cleartext, maxConcurrentStreams, initialWindowSize);
+        return factory -> factory.addConnectorCustomizers(this::customize);
+    }
+
+    void customize(Connector connector) {
+        Http2Protocol protocol = Arrays.stream(connector.findUpgradeProtocols())
+                .filter(Http2Protocol.class::isInstance)
+                .map(Http2Protocol.class::cast)
+                .findFirst()
+                .orElse(null);
+        if (protocol == null) {
+            if (!cleartext && !connector.getSecure()) {
+                log.info("HTTP/2 is not enabled on the connector on port {} without TLS", connector.getPort());
+                return;
+            }
+            protocol = new Http2Protocol();
+            connector.addUpgradeProtocol(protocol);
+        }
+        protocol.setMaxConcurrentStreams(maxConcurrentStreams);
+        protocol.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+        protocol.setInitialWindowSize(Math.toIntExact(initialWindowSize.toBytes()));
+        protocol.setKeepAliveTimeout(keepAliveTimeout.toMillis());
+    }
+}
@@ -0,0 +1,138 @@
+package nl.kabisa.spring.boot.starter.service.httpcache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.FilterOrders;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * This configuration class sets the Cache-Control and Vary of routes, and keeps GET responses of routes with a
+ * server-side cache in the {@link HttpResponseCache}, see {@link HttpCacheFilter}. The AppSecurityConfig disables the
+ * cache headers of Spring Security, routes without a policy are left as is.
+ * <p>
+ * You can enable this configuration with:
+ * <p>
+ * service.starter.http-cache.enabled=true
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.http-cache")
+@ConditionalOnProperty(prefix = "service.starter.http-cache", name = "enabled", havingValue = "true", matchIfMissing = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(OncePerRequestFilter.class)
+@Slf4j
+class HttpCacheAutoConfiguration {
+
+    /**
+     * Are the HTTP cache policies enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * The maximum number of responses in the server-side cache, the least recently used are evicted. (default is 1000)
+     */
+    private int maxEntries = 1000;
+
+    /**
+     * The maximum total body size of the responses in the server-side cache, the least recently used are evicted.
+     * (default is 32MB)
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+
+    /**
+     * The maximum body size of a response in the server-side cache. (default is 256KB)
+     */
+    private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+    /**
+     * The policy per route pattern, e.g. service.starter.http-cache.routes[/api/quotes/**].cache-control=max-age=60
+     * (default is no routes)
+     */
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    /**
+     * The HTTP cache policy of a route.
+     */
+    @Data
+    public static class Route {
+
+        /**
+         * The Cache-Control of successful responses, e.g. 'max-age=60, public'. (default is none)
+         */
+        private String cacheControl;
+
+        /**
+         * The request headers the response varies on. (default is none)
+         */
+        private List<String> vary = new ArrayList<>();
+
+        /**
+         * Are GET responses kept in the server-side cache? (default is false)
+         */
+        private boolean serverCache = false;
+
+        /**
+         * The time a response is served from the server-side cache. (default is 60s)
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+
+        HttpCachePolicy toPolicy() {
+            return new HttpCachePolicy(cacheControl, vary, serverCache, ttl);
+        }
+    }
+
+    @Bean
+    HttpResponseCache httpResponseCache() {
+        return new HttpResponseCache(maxEntries, maxSize.toBytes());
+    }
+
+    @Bean
+    FilterRegistrationBean<HttpCacheFilter> httpCacheFilter(HttpResponseCache cache) {
+        Map<String, HttpCachePolicy> policies = routes.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toPolicy()));
+        log.info("Configuring HTTP cache policies of {}", policies.keySet());
+        FilterRegistrationBean<HttpCacheFilter> result = new FilterRegistrationBean<>(
+                new HttpCacheFilter(policies, cache, maxEntrySize.toBytes()));
+        result.setOrder(FilterOrders.HTTP_CACHE);
+        return result;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class HttpCacheMetricsConfiguration {
+
+        @Bean
+        MeterBinder httpResponseCacheMetrics(HttpResponseCache cache) {
+            return registry -> {
+                FunctionCounter.builder("http.server.cache.requests", cache, HttpResponseCache::getHits)
+                        .description("Requests for the server-side HTTP cache").tag("result", "hit").register(registry);
+                FunctionCounter.builder("http.server.cache.requests", cache, HttpResponseCache::getMisses)
+                        .description("Requests for the server-side HTTP cache").tag("result", "miss").register(registry);
+                Gauge.builder("http.server.cache.size", cache, HttpResponseCache::size)
+                        .description("Responses in the server-side HTTP cache").register(registry);
+                Gauge.builder("http.server.cache.bytes", cache, HttpResponseCache::getBytes).baseUnit("bytes")
+                        .description("Body size of the responses in the server-side HTTP cache").register(registry);
+            };
+        }
+    }
+}
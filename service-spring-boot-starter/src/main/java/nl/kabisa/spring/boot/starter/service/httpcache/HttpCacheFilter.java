@@ -0,0 +1,202 @@
+package nl.kabisa.spring.boot.starter.service.httpcache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.RouteMatcher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link HttpCachePolicy} of the most specific matching route pattern, see {@link RouteMatcher}, and
+ * serves GET responses of routes with a server-side cache from the {@link HttpResponseCache} without invoking the
+ * handler.
+ * <p>
+ * The key of a cached response is the method, the URI with the query string, the values of the Vary headers of the
+ * policy and the authenticated principal, so a response is never served to another user. The filter runs after the
+ * security filter chain, a cached response is only served to an authorized request. Only 200 responses without
+ * Set-Cookie, without Cache-Control no-store or private and up to the maximum entry size are cached. A response that
+ * varies on a header that is not in the key, e.g. the Vary: Origin of a CORS response, is not cached.
+ * <p>
+ * Only the headers written after this filter are cached, the filters before it write their headers again on a hit.
+ */
+@Slf4j
+public class HttpCacheFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final Set<String> UNCACHED_HEADERS = Set.of("content-type", "content-length", "date", "age");
+
+    private final RouteMatcher<HttpCachePolicy> routes;
+    private final HttpResponseCache cache;
+    private final long maxEntrySize;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public HttpCacheFilter(Map<String, HttpCachePolicy> routes, HttpResponseCache cache, long maxEntrySize) {
+        this.routes = new RouteMatcher<>(routes, null);
+        this.cache = cache;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CapturingResponseWrapper capture = WebUtils.getNativeResponse(response, CapturingResponseWrapper.class);
+        if (capture != null || isAsyncDispatch(request)) {
+            filterChain.doFilter(request, response);
+            complete(request, capture);
+            return;
+        }
+
+        String path = urlPathHelper.getPathWithinApplication(request);
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            if (response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+                // the unsafe request changed the resource, see RFC 9111 4.4
+                cache.invalidatePath(path);
+            }
+            return;
+        }
+        HttpCachePolicy policy = policy(path);
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!policy.serverCache() || !HttpMethod.GET.matches(request.getMethod())) {
+            filterChain.doFilter(request, new PolicyResponseWrapper(response, policy));
+            return;
+        }
+        String key = key(request, policy);
+        long now = System.nanoTime();
+        HttpResponseCache.CachedResponse cached = cache.get(key, now);
+        if (cached != null) {
+            write(cached, response, now);
+            return;
+        }
+
+        // the headers of the filters before this one, before the policy adds its headers
+        Map<String, List<String>> outerHeaders = headers(response);
+        capture = new CapturingResponseWrapper(new PolicyResponseWrapper(response, policy), path, key, policy, outerHeaders);
+        filterChain.doFilter(request, capture);
+        complete(request, capture);
+    }
+
+    HttpCachePolicy policy(String path) {
+        return routes.match(path);
+    }
+
+    static String key(HttpServletRequest request, HttpCachePolicy policy) {
+        StringBuilder key = new StringBuilder(request.getMethod()).append(' ').append(request.getRequestURI());
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        for (String header : policy.vary()) {
+            key.append('\n').append(header).append(": ").append(String.join(", ", Collections.list(request.getHeaders(header))));
+        }
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            key.append("\nprincipal: ").append(principal.getName());
+        }
+        return key.toString();
+    }
+
+    private void complete(HttpServletRequest request, CapturingResponseWrapper capture) throws IOException {
+        if (capture == null || isAsyncStarted(request)) {
+            return;
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers(capture).forEach((name, values) -> {
+            capture.outerHeaders.getOrDefault(name, List.of()).forEach(values::remove);
+            if (!values.isEmpty() && !UNCACHED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, values);
+            }
+        });
+        if (isCacheable(capture, headers)) {
+            long now = System.nanoTime();
+            cache.put(capture.key, new HttpResponseCache.CachedResponse(capture.path, capture.getStatus(), capture.getContentType(),
+                    headers, capture.getContentAsByteArray(), now, now + capture.policy.ttl().toNanos()));
+        }
+        capture.copyBodyToResponse();
+    }
+
+    private boolean isCacheable(CapturingResponseWrapper response, Map<String, List<String>> headers) {
+        if (response.getStatus() != HttpServletResponse.SC_OK || response.getContentSize() > maxEntrySize
+                || response.getHeader(HttpHeaders.SET_COOKIE) != null) {
+            return false;
+        }
+        Collection<String> cacheControl = response.getHeaders(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl.stream().anyMatch(value -> value.contains("no-store") || value.contains("private"))) {
+            return false;
+        }
+        return headers.entrySet().stream()
+                .filter(header -> HttpHeaders.VARY.equalsIgnoreCase(header.getKey()))
+                .flatMap(header -> header.getValue().stream())
+                .flatMap(value -> Arrays.stream(StringUtils.tokenizeToStringArray(value, ",")))
+                .allMatch(vary -> response.policy.vary().stream().anyMatch(vary::equalsIgnoreCase));
+    }
+
+    private static Map<String, List<String>> headers(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+        for (String name : response.getHeaderNames()) {
+            headers.put(name, new ArrayList<>(response.getHeaders(name)));
+        }
+        return headers;
+    }
+
+    private static void write(HttpResponseCache.CachedResponse cached, HttpServletResponse response, long now) throws IOException {
+        response.setStatus(cached.status());
+        cached.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        if (cached.contentType() != null) {
+            response.setContentType(cached.contentType());
+        }
+        response.setHeader(HttpHeaders.AGE, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(now - cached.created())));
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    /**
+     * Holds the body of a response that may be cached, until the request is complete.
+     */
+    private static class CapturingResponseWrapper extends ContentCachingResponseWrapper {
+
+        private final String path;
+        private final String key;
+        private final HttpCachePolicy policy;
+        private final Map<String, List<String>> outerHeaders;
+
+        CapturingResponseWrapper(HttpServletResponse response, String path, String key, HttpCachePolicy policy,
+                                 Map<String, List<String>> outerHeaders) {
+            super(response);
+            this.path = path;
+            this.key = key;
+            this.policy = policy;
+            this.outerHeaders = outerHeaders;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package nl.kabisa.spring.boot.starter.service.httpcache;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Publish this event to remove responses from the {@link HttpResponseCache}, e.g. after a change that is not made
+ * through a request of the service itself:
+ * <pre>
+ * applicationEventPublisher.publishEvent(new HttpCacheInvalidationEvent(this, "/api/quotes/**"));
+ * </pre>
+ */
+public class HttpCacheInvalidationEvent extends ApplicationEvent {
+
+    @java.io.Serial
+    private static final long serialVersionUID = 6028394475311205519L;
+
+    private final String pathPattern;
+
+    /**
+     * @param pathPattern the Ant pattern of the paths to remove, null removes all responses
+     */
+    public HttpCacheInvalidationEvent(Object source, String pathPattern) {
+        super(source);
+        this.pathPattern = pathPattern;
+    }
+
+    public String getPathPattern() {
+        return pathPattern;
+    }
+}
@@ -0,0 +1,19 @@
+package nl.kabisa.spring.boot.starter.service.httpcache;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The HTTP cache policy of a route.
+ *
+ * @param cacheControl the Cache-Control of successful responses, null to leave it to the handler
+ * @param vary         the request headers the response varies on, they are part of the key of the server-side cache
+ * @param serverCache  are GET responses kept in the server-side {@link HttpResponseCache}?
+ * @param ttl          the time a response is served from the server-side cache
+ */
+public record HttpCachePolicy(String cacheControl, List<String> vary, boolean serverCache, Duration ttl) {
+
+    public HttpCachePolicy {
+        vary = vary == null ? List.of() : List.copyOf(vary);
+    }
+}
@@ -0,0 +1,145 @@
+package nl.kabisa.spring.boot.starter.service.httpcache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * An in-process cache of GET responses, bounded by the number of entries and the total size of the bodies, the least
+ * recently used are evicted first, and by the time to live of every response. Responses are removed by a {@link HttpCacheInvalidationEvent}, or when a request with an
+ * unsafe method, e.g. a PUT, succeeds on the same path.
+ */
+@Slf4j
+public class HttpResponseCache {
+
+    /**
+     * A cached response.
+     */
+    public record CachedResponse(String path, int status, String contentType, Map<String, List<String>> headers, byte[] body,
+                                 long created, long expires) {
+    }
+
+    private final int maxEntries;
+    private final long maxSize;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    // in access order, the least recently used first
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long bytes;
+
+    /**
+     * @param maxEntries the maximum number of responses
+     * @param maxSize    the maximum total size of the bodies in bytes
+     */
+    public HttpResponseCache(int maxEntries, long maxSize) {
+        this.maxEntries = maxEntries;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the response of the key that is not expired, or null
+     */
+    public CachedResponse get(String key, long now) {
+        CachedResponse response;
+        synchronized (entries) {
+            response = entries.get(key);
+            if (response != null && response.expires() - now <= 0) {
+                entries.remove(key);
+                bytes -= response.body().length;
+                response = null;
+            }
+        }
+        (response == null ? misses : hits).increment();
+        return response;
+    }
+
+    public void put(String key, CachedResponse response) {
+        if (response.body().length > maxSize) {
+            return;
+        }
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, response);
+            bytes += response.body().length - (previous == null ? 0 : previous.body().length);
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries || bytes > maxSize) {
+                bytes -= eldest.next().body().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes the responses of the paths that match the Ant pattern.
+     */
+    public void invalidate(String pathPattern) {
+        remove(response -> pathMatcher.match(pathPattern, response.path()));
+    }
+
+    /**
+     * Removes the responses of the path, with any query string.
+     */
+    public void invalidatePath(String path) {
+        remove(response -> response.path().equals(path));
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    @EventListener
+    public void onInvalidation(HttpCacheInvalidationEvent event) {
+        log.debug("Invalidating cached responses of {}", event.getPathPattern() == null ? "all paths" : event.getPathPattern());
+        if (event.getPathPattern() == null) {
+            invalidateAll();
+        } else {
+            invalidate(event.getPathPattern());
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * The total size of the bodies in bytes.
+     */
+    public long getBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void remove(Predicate<CachedResponse> filter) {
+        synchronized (entries) {
+            Iterator<CachedResponse> responses = entries.values().iterator();
+            while (responses.hasNext()) {
+                CachedResponse response = responses.next();
+                if (filter.test(response)) {
+                    bytes -= response.body().length;
+                    responses.remove();
+                }
+            }
+        }
+    }
+}
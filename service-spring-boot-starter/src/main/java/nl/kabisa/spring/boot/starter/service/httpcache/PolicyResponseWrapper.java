@@ -0,0 +1,47 @@
+package nl.kabisa.spring.boot.starter.service.httpcache;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+
+/**
+ * Sets the Cache-Control and Vary of the {@link HttpCachePolicy}, and replaces the Cache-Control with no-store when
+ * the response turns out to be an error: only successful responses are cacheable.
+ */
+class PolicyResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final String NO_STORE = CacheControl.noStore().getHeaderValue();
+
+    PolicyResponseWrapper(HttpServletResponse response, HttpCachePolicy policy) {
+        super(response);
+        if (policy.cacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, policy.cacheControl());
+        }
+        if (!policy.vary().isEmpty()) {
+            response.addHeader(HttpHeaders.VARY, String.join(", ", policy.vary()));
+        }
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        super.setStatus(sc);
+        if (sc >= HttpServletResponse.SC_BAD_REQUEST) {
+            super.setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        super.setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        super.setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+        super.sendError(sc);
+    }
+}
@@ -1,13 +1,13 @@
 package nl.kabisa.spring.boot.starter.service.logging;
 
 import lombok.Data;
+import nl.kabisa.spring.boot.starter.service.filter.FilterOrders;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
-import org.springframework.core.Ordered;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.util.HashMap;
@@ -90,7 +90,7 @@ class LoggingAutoConfiguration {
         filter.setFilterUri(filterUri);
 
         FilterRegistrationBean result = new FilterRegistrationBean<>(filter);
-        result.setOrder(Ordered.HIGHEST_PRECEDENCE); // make sure it runs before the security filter chain
+        result.setOrder(FilterOrders.REQUEST_LOGGING);
         return result;
     }
 
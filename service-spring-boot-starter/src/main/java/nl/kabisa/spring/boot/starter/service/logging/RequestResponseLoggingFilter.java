@@ -1,11 +1,13 @@
 package nl.kabisa.spring.boot.starter.service.logging;
 
+import jakarta.servlet.ServletConnection;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.FilterOrders;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpStatus;
@@ -37,6 +39,7 @@ class RequestResponseLoggingFilter extends AbstractLoggingFilter implements Orde
 
         msg.append(id).append(" > REQUEST ");
         appendRequestURIAndQueryString(msg, request, includeQueryString).append(" ");
+        msg.append(request.getProtocol()).append(" ");
         appendContentType(msg, request.getContentType());
         msg.append("\n");
 
@@ -54,6 +57,14 @@ class RequestResponseLoggingFilter extends AbstractLoggingFilter implements Orde
             if (isNotBlank(request.getRemoteUser())) {
                 msg.append(" remoteUser=").append(request.getRemoteUser());
             }
+            // requests of one HTTP/2 connection are multiplexed as streams
+            ServletConnection connection = request.getServletConnection();
+            if (connection != null && isNotBlank(connection.getConnectionId())) {
+                msg.append(" connectionId=").append(connection.getConnectionId());
+            }
+            if (isNotBlank(request.getProtocolRequestId())) {
+                msg.append(" streamId=").append(request.getProtocolRequestId());
+            }
             HttpSession session = request.getSession(false);
             if (session != null) {
                 msg.append(" sessionId=").append(session.getId());
@@ -205,7 +216,6 @@ class RequestResponseLoggingFilter extends AbstractLoggingFilter implements Orde
 
     @Override
     public int getOrder() {
-        // run before standard Spring Boot customizer
-        return Ordered.HIGHEST_PRECEDENCE;
+        return FilterOrders.REQUEST_LOGGING;
     }
 }
@@ -15,6 +15,9 @@ import org.springframework.boot.web.servlet.error.DefaultErrorAttributes;
 import org.springframework.boot.web.servlet.error.ErrorAttributes;
 import org.springframework.boot.web.servlet.error.ErrorController;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 /**
@@ -32,6 +35,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 @AutoConfigureBefore({ErrorMvcAutoConfiguration.class})
 @ConfigurationProperties("service.starter.problem")
 @ConditionalOnProperty(prefix = "service.starter.problem", name = "enabled", havingValue = "true", matchIfMissing = true)
+@ImportRuntimeHints(ProblemRuntimeHints.class)
 @Slf4j
 class ProblemAutoConfiguration {
 
@@ -42,6 +46,17 @@ class ProblemAutoConfiguration {
         return new ProblemEntityExceptionHandler();
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({ResponseEntityExceptionHandler.class, OptimisticLockingFailureException.class})
+    static class ProblemConflictConfiguration {
+
+        @Bean
+        public ProblemConflictExceptionHandler conflictExceptionHandler() {
+            log.info("Configuring ProblemConflictExceptionHandler");
+            return new ProblemConflictExceptionHandler();
+        }
+    }
+
     @Bean
     @ConditionalOnClass(DefaultErrorAttributes.class)
     @ConditionalOnMissingBean(value = ErrorAttributes.class, search = SearchStrategy.CURRENT)
@@ -0,0 +1,38 @@
+package nl.kabisa.spring.boot.starter.service.problem;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * A <code>ControllerAdvice</code> class to translate an {@link OptimisticLockingFailureException} to a 409 Conflict
+ * Problem. The update conflicted with a concurrent update of the same entity, and the retries (if any) are exhausted.
+ * <p>
+ * Only configured when spring-tx is on the classpath, in services with a database. It is ordered before the
+ * {@link ProblemEntityExceptionHandler}, whose catch-all handler would otherwise handle the exception.
+ */
+@Slf4j
+@ControllerAdvice
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+class ProblemConflictExceptionHandler {
+
+    /**
+     * The problem message if an update conflicted with a concurrent update.
+     */
+    static final String MSG_CONFLICT = "The resource was modified concurrently, retry the request";
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(code = HttpStatus.CONFLICT)
+    public ResponseEntity<Problem> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        log.warn("Optimistic locking failure: {}", ex.getMessage());
+        return ProblemEntityExceptionHandler.problem(HttpStatus.CONFLICT, request, Problem.TYPE_PROBLEM, MSG_CONFLICT, null, null, null);
+    }
+}
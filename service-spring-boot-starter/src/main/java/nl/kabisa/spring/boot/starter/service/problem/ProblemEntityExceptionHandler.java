@@ -3,6 +3,7 @@ package nl.kabisa.spring.boot.starter.service.problem;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import nl.kabisa.spring.boot.starter.service.exception.ForbiddenException;
+import nl.kabisa.spring.boot.starter.service.exception.PayloadTooLargeException;
 import nl.kabisa.spring.boot.starter.service.exception.ServiceException;
 import nl.kabisa.spring.boot.starter.service.exception.UnauthorizedException;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -32,8 +33,9 @@ import static org.springframework.web.context.request.RequestAttributes.SCOPE_RE
 
 /**
  * A common <code>ControllerAdvice</code> class to translate known Exceptions to standard Problem types.
- * Currently supports: {@link ServiceException}, {@link ForbiddenException}, {@link ValidationException}
- * and {@link RuntimeException}.
+ * Currently supports: {@link ServiceException}, {@link ForbiddenException}, {@link ValidationException},
+ * {@link PayloadTooLargeException} and {@link RuntimeException}. An OptimisticLockingFailureException is translated
+ * by the {@link ProblemConflictExceptionHandler}.
  *
  * @author Mark Spreksel
  * @see <a href="https://www.baeldung.com/exception-handling-for-rest-with-spring">Spring Exception Handling</a>
@@ -73,6 +75,13 @@ class ProblemEntityExceptionHandler extends ResponseEntityExceptionHandler {
         return problem(HttpStatus.FORBIDDEN, request, Problem.TYPE_PROBLEM, "Access Denied", null, null, null);
     }
 
+    @ExceptionHandler(PayloadTooLargeException.class)
+    @ResponseStatus(code = HttpStatus.PAYLOAD_TOO_LARGE)
+    public ResponseEntity<Problem> handlePayloadTooLargeException(PayloadTooLargeException ex, HttpServletRequest request) {
+        logException("Payload too large: {}", ex);
+        return problem(HttpStatus.PAYLOAD_TOO_LARGE, request, Problem.TYPE_PROBLEM, ex.getMessage(), null, null, null);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(code = HttpStatus.BAD_REQUEST)
     public ResponseEntity<Problem> handleIllegalArgumentException(IllegalArgumentException ex, HttpServletRequest request) {
@@ -179,8 +188,8 @@ class ProblemEntityExceptionHandler extends ResponseEntityExceptionHandler {
         }
     }
 
-    private ResponseEntity<Problem> problem(HttpStatus status, HttpServletRequest req, String type, String message,
-                                            UUID id, String code, List<ConstraintViolation> cv) {
+    static ResponseEntity<Problem> problem(HttpStatus status, HttpServletRequest req, String type, String message,
+                                           UUID id, String code, List<ConstraintViolation> cv) {
 
         // Accept header without json will result in status 406: prevent this by removing Accept values..
         req.removeAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
@@ -23,6 +23,9 @@ import java.util.Map;
  * <p>
  * This controller is called when the client sends a not existing url (not leading to a resource controller) in the request. this error
  * controller will send a Problem result back in that case.
+ * <p>
+ * A filter that rejects a request with <code>sendError</code>, e.g. the request size limit, the concurrency limit or the
+ * rate limit, causes an error dispatch to this controller, so the rejection is rendered as a Problem as well.
  */
 @Controller
 @ConditionalOnProperty(prefix = "service.starter.problem", name = "enabled", havingValue = "true", matchIfMissing = true)
@@ -0,0 +1,20 @@
+package nl.kabisa.spring.boot.starter.service.problem;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Runtime hints for the {@link Problem} types, they are serialized by Jackson in the {@link ProblemErrorController}
+ * and the {@link ProblemEntityExceptionHandler}.
+ */
+class ProblemRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), Problem.class, ConstraintViolation.class);
+    }
+
+}
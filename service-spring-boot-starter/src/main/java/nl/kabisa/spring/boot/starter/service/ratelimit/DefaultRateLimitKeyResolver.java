@@ -0,0 +1,60 @@
+package nl.kabisa.spring.boot.starter.service.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+
+/**
+ * Keys a request by the authenticated principal, a valid API key or the remote address, in that order. An API key is
+ * only used when the validator accepts it, a client can not get a new bucket by sending another header value. The
+ * API key is hashed, so it does not show up in the top offenders. The remote address is the one of the proxy unless
+ * the forwarded headers are applied, see server.forward-headers-strategy.
+ */
+public class DefaultRateLimitKeyResolver implements RateLimitKeyResolver {
+
+    private final String apiKeyHeader;
+    private final RateLimitApiKeyValidator apiKeyValidator;
+
+    /**
+     * Keys a request by the authenticated principal or the remote address.
+     */
+    public DefaultRateLimitKeyResolver() {
+        this(null, null);
+    }
+
+    /**
+     * @param apiKeyHeader    the header with the API key, null to not key by API key
+     * @param apiKeyValidator validates the API key of the header
+     */
+    public DefaultRateLimitKeyResolver(String apiKeyHeader, RateLimitApiKeyValidator apiKeyValidator) {
+        this.apiKeyHeader = apiKeyValidator != null ? apiKeyHeader : null;
+        this.apiKeyValidator = apiKeyValidator;
+    }
+
+    @Override
+    public String resolve(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String apiKey = StringUtils.hasText(apiKeyHeader) ? request.getHeader(apiKeyHeader) : null;
+        if (StringUtils.hasText(apiKey) && apiKeyValidator.isValid(apiKey)) {
+            return "key:" + hash(apiKey);
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static String hash(String apiKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package nl.kabisa.spring.boot.starter.service.ratelimit;
+
+/**
+ * Validates the API key of a request for the {@link DefaultRateLimitKeyResolver}, define a bean to key the clients
+ * without an authenticated principal by their API key.
+ */
+@FunctionalInterface
+public interface RateLimitApiKeyValidator {
+
+    /**
+     * @return true when the API key belongs to a known client
+     */
+    boolean isValid(String apiKey);
+}
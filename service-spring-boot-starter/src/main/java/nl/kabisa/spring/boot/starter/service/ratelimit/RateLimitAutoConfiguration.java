@@ -0,0 +1,133 @@
+package nl.kabisa.spring.boot.starter.service.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.FilterOrders;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This configuration class limits the request rate per client with a token bucket, see {@link RateLimiter}. A client
+ * is the authenticated principal, a valid API key or the remote address, see {@link DefaultRateLimitKeyResolver}. A
+ * request without tokens left is rejected with a 429 Problem and a Retry-After header.
+ * <p>
+ * The clients with the most rejected requests are available in the actuator endpoint 'ratelimit'. You can enable this
+ * configuration with:
+ * <p>
+ * service.starter.ratelimit.enabled=true
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.ratelimit")
+@ConditionalOnProperty(prefix = "service.starter.ratelimit", name = "enabled", havingValue = "true", matchIfMissing = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(OncePerRequestFilter.class)
+@Slf4j
+class RateLimitAutoConfiguration {
+
+    /**
+     * Is the rate limit per client enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * The sustained number of requests per second of a client. (default is 10)
+     */
+    private double requestsPerSecond = 10;
+
+    /**
+     * The number of requests a client can make at once after being idle. (default is 20)
+     */
+    private int burst = 20;
+
+    /**
+     * The maximum number of clients with a bucket, the least recently seen are evicted. (default is 10000)
+     */
+    private int maxClients = 10000;
+
+    /**
+     * The header with the API key of clients without an authenticated principal, only used with a
+     * RateLimitApiKeyValidator bean. (default is none)
+     */
+    private String apiKeyHeader;
+
+    /**
+     * The number of clients in the top offenders of the ratelimit endpoint. (default is 10)
+     */
+    private int topOffenders = 10;
+
+    /**
+     * Route patterns without a rate limit. (default is the health endpoints)
+     */
+    private List<String> excludePatterns = new ArrayList<>(List.of("/actuator/health/**"));
+
+    @Bean
+    RateLimiter rateLimiter() {
+        log.info("Configuring rate limit per client, requests per second: {}, burst: {}", requestsPerSecond, burst);
+        return new RateLimiter(requestsPerSecond, burst, maxClients);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimitKeyResolver.class)
+    RateLimitKeyResolver rateLimitKeyResolver(ObjectProvider<RateLimitApiKeyValidator> apiKeyValidator) {
+        RateLimitApiKeyValidator validator = apiKeyValidator.getIfAvailable();
+        if (StringUtils.hasText(apiKeyHeader) && validator == null) {
+            log.warn("Rate limit api-key-header {} ignored without a RateLimitApiKeyValidator bean, clients are keyed by remote address", apiKeyHeader);
+        }
+        return new DefaultRateLimitKeyResolver(apiKeyHeader, validator);
+    }
+
+    @Bean
+    FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiter rateLimiter, RateLimitKeyResolver keyResolver) {
+        FilterRegistrationBean<RateLimitFilter> result = new FilterRegistrationBean<>(
+                new RateLimitFilter(rateLimiter, keyResolver, excludePatterns));
+        result.setOrder(FilterOrders.RATE_LIMIT);
+        return result;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class RateLimitEndpointConfiguration {
+
+        @Bean
+        RateLimitEndpoint rateLimitEndpoint(RateLimiter rateLimiter, RateLimitAutoConfiguration properties) {
+            return new RateLimitEndpoint(rateLimiter, properties.getTopOffenders());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class RateLimitMetricsConfiguration {
+
+        /**
+         * Only the totals, a tag per client would make the number of meters unbounded.
+         */
+        @Bean
+        MeterBinder rateLimitMetrics(RateLimiter rateLimiter) {
+            return registry -> {
+                FunctionCounter.builder("http.server.ratelimit.rejected", rateLimiter, RateLimiter::getRejected)
+                        .description("Requests rejected by the rate limit").register(registry);
+                Gauge.builder("http.server.ratelimit.clients", rateLimiter, RateLimiter::getKeys)
+                        .description("Clients with a token bucket").register(registry);
+            };
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package nl.kabisa.spring.boot.starter.service.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint 'ratelimit' with the number of rejected requests and the client keys with the most rejected
+ * requests.
+ */
+@Endpoint(id = "ratelimit")
+public class RateLimitEndpoint {
+
+    private final RateLimiter rateLimiter;
+    private final int topOffenders;
+
+    public RateLimitEndpoint(RateLimiter rateLimiter, int topOffenders) {
+        this.rateLimiter = rateLimiter;
+        this.topOffenders = topOffenders;
+    }
+
+    @ReadOperation
+    public Map<String, Object> ratelimit() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rejected", rateLimiter.getRejected());
+        result.put("keys", rateLimiter.getKeys());
+        result.put("topOffenders", rateLimiter.topOffenders(topOffenders));
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package nl.kabisa.spring.boot.starter.service.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.RouteMatcher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects a request with a 429 and a Retry-After header when the client has no tokens left, see {@link RateLimiter}.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String MSG_TOO_MANY_REQUESTS = "Too many requests, retry the request later";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitKeyResolver keyResolver;
+    private final List<String> excludePatterns;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitKeyResolver keyResolver, List<String> excludePatterns) {
+        this.rateLimiter = rateLimiter;
+        this.keyResolver = keyResolver;
+        this.excludePatterns = List.copyOf(excludePatterns);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        return RouteMatcher.matchesAny(excludePatterns, path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = keyResolver.resolve(request);
+        long wait = key == null ? 0 : rateLimiter.tryAcquire(key);
+        if (wait > 0) {
+            log.debug("Rejected {} {} of {}, rate limit reached", request.getMethod(), request.getRequestURI(), key);
+            long seconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), MSG_TOO_MANY_REQUESTS);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
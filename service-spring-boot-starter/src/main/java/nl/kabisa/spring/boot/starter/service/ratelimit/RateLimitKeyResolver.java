@@ -0,0 +1,16 @@
+package nl.kabisa.spring.boot.starter.service.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the client key of a request for the {@link RateLimitFilter}, define a bean to replace the
+ * {@link DefaultRateLimitKeyResolver}.
+ */
+@FunctionalInterface
+public interface RateLimitKeyResolver {
+
+    /**
+     * @return the client key, or null when the request is not limited
+     */
+    String resolve(HttpServletRequest request);
+}
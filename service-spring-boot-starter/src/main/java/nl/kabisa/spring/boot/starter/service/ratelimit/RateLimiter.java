@@ -0,0 +1,120 @@
+package nl.kabisa.spring.boot.starter.service.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds a {@link TokenBucket} per client key. The buckets are kept in stripes, each a small LRU map with its own lock,
+ * so looking up a bucket only contends with keys of the same stripe and the number of buckets is bounded: the least
+ * recently used key of a full stripe is evicted, it starts with a full bucket when it returns.
+ */
+public class RateLimiter {
+
+    /**
+     * A client key and its number of rejected requests.
+     */
+    public record Offender(String key, long rejected) {
+    }
+
+    private static final int STRIPES = 16;
+
+    private final long intervalNanos;
+    private final int burst;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Invalid rate limit, permits per second: " + permitsPerSecond + ", burst: " + burst);
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burst = burst;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(Math.max(1, maxKeys / STRIPES));
+        }
+    }
+
+    /**
+     * Takes a token from the bucket of the key.
+     *
+     * @return 0 when the request is allowed, otherwise the nanos until the next token of the key is available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        long wait = stripe(key).bucket(key, now).tryConsume(now);
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * The keys with the most rejected requests, of the keys that are not evicted.
+     */
+    public List<Offender> topOffenders(int limit) {
+        List<Offender> offenders = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.forEach((key, bucket) -> {
+                    long count = bucket.getRejected();
+                    if (count > 0) {
+                        offenders.add(new Offender(key, count));
+                    }
+                });
+            }
+        }
+        return offenders.stream()
+                .sorted(Comparator.comparingLong(Offender::rejected).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * The number of rejected requests since startup.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * The number of keys with a bucket.
+     */
+    public int getKeys() {
+        int keys = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                keys += stripe.size();
+            }
+        }
+        return keys;
+    }
+
+    private Stripe stripe(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private final class Stripe extends LinkedHashMap<String, TokenBucket> {
+
+        private final int maxKeys;
+
+        Stripe(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        synchronized TokenBucket bucket(String key, long now) {
+            return computeIfAbsent(key, k -> new TokenBucket(intervalNanos, burst, now));
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
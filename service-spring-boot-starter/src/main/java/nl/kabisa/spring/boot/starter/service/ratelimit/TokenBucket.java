@@ -0,0 +1,55 @@
+package nl.kabisa.spring.boot.starter.service.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free token bucket. The state is a single long, the time at which the bucket is full again (the theoretical
+ * arrival time of the generic cell rate algorithm): a request takes a token by moving that time one interval ahead
+ * with a CAS, and is rejected when it would be more than the burst ahead of now.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param intervalNanos the time to refill one token
+     * @param burst         the number of tokens of a full bucket
+     * @param now           the current {@link System#nanoTime()}, the bucket starts full
+     */
+    public TokenBucket(long intervalNanos, int burst, long now) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = intervalNanos * (burst - 1L);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token.
+     *
+     * @return 0 when a token was taken, otherwise the nanos until the next token is available
+     */
+    public long tryConsume(long now) {
+        for (;;) {
+            long current = fullAt.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - now - toleranceNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * The number of rejected requests of this bucket.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
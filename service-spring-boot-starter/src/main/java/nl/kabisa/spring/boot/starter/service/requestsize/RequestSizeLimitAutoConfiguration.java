@@ -0,0 +1,63 @@
+package nl.kabisa.spring.boot.starter.service.requestsize;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.filter.FilterOrders;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * This configuration class limits the size of request bodies per route, see {@link RequestSizeLimitFilter}. A body
+ * above the maximum is rejected with a 413 Problem before the request logging or a controller reads it.
+ * <p>
+ * You can enable this configuration with:
+ * <p>
+ * service.starter.request-size.enabled=true
+ */
+@Data
+@AutoConfiguration
+@ConfigurationProperties("service.starter.request-size")
+@ConditionalOnProperty(prefix = "service.starter.request-size", name = "enabled", havingValue = "true", matchIfMissing = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(OncePerRequestFilter.class)
+@Slf4j
+class RequestSizeLimitAutoConfiguration {
+
+    /**
+     * Is the request size limit enabled? (default is false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * The maximum body size of routes without a matching pattern. (default is 1MB)
+     */
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+    /**
+     * The maximum body size per route pattern, a negative size is unlimited,
+     * e.g. service.starter.request-size.routes[/api/documents/**]=20MB (default is no routes)
+     */
+    private Map<String, DataSize> routes = new LinkedHashMap<>();
+
+    @Bean
+    FilterRegistrationBean<RequestSizeLimitFilter> requestSizeLimitFilter() {
+        log.info("Configuring request size limit, max body size: {}, routes: {}", maxBodySize, routes);
+        Map<String, Long> routeMaxSizes = routes.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toBytes()));
+        FilterRegistrationBean<RequestSizeLimitFilter> result = new FilterRegistrationBean<>(
+                new RequestSizeLimitFilter(maxBodySize.toBytes(), routeMaxSizes));
+        result.setOrder(FilterOrders.REQUEST_SIZE_LIMIT);
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package nl.kabisa.spring.boot.starter.service.requestsize;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.spring.boot.starter.service.exception.PayloadTooLargeException;
+import nl.kabisa.spring.boot.starter.service.filter.RouteMatcher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Limits the size of request bodies. A Content-Length above the maximum is rejected before the body is read, other
+ * bodies are counted while they are read, see {@link SizeLimitedRequestWrapper}. When the body is read by a controller
+ * the ProblemEntityExceptionHandler renders the {@link PayloadTooLargeException}.
+ * <p>
+ * The maximum of a request is the one of the most specific matching route pattern, see {@link RouteMatcher}.
+ */
+@Slf4j
+public class RequestSizeLimitFilter extends OncePerRequestFilter {
+
+    private final RouteMatcher<Long> routeMaxSizes;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public RequestSizeLimitFilter(long maxSize, Map<String, Long> routeMaxSizes) {
+        this.routeMaxSizes = new RouteMatcher<>(routeMaxSizes, maxSize);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long max = maxSize(urlPathHelper.getPathWithinApplication(request));
+        if (max < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > max) {
+            log.debug("Rejected {} {}, Content-Length {} exceeds {}", request.getMethod(), request.getRequestURI(), contentLength, max);
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), SizeLimitedRequestWrapper.message(max));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(new SizeLimitedRequestWrapper(request, max), response);
+        } catch (PayloadTooLargeException e) {
+            // the body was read by a filter, e.g. the request logging, outside the exception handling of Spring MVC
+            if (response.isCommitted()) {
+                throw e;
+            }
+            log.debug("Rejected {} {}, body exceeds {}", request.getMethod(), request.getRequestURI(), max);
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), e.getMessage());
+        }
+    }
+
+    /**
+     * The maximum body size of the path, a negative size is unlimited.
+     */
+    long maxSize(String path) {
+        return routeMaxSizes.match(path);
+    }
+}
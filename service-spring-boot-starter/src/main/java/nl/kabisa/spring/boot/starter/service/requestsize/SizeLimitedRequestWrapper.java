@@ -0,0 +1,103 @@
+package nl.kabisa.spring.boot.starter.service.requestsize;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import nl.kabisa.spring.boot.starter.service.exception.PayloadTooLargeException;
+import org.springframework.web.util.WebUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * Counts the bytes read from the body and throws a {@link PayloadTooLargeException} as soon as the maximum is
+ * exceeded, for bodies without a Content-Length (chunked) or with a Content-Length that is not honoured. Nothing is
+ * buffered, the body is only read as far as the maximum.
+ */
+class SizeLimitedRequestWrapper extends HttpServletRequestWrapper {
+
+    private final long maxSize;
+    private ServletInputStream inputStream;
+
+    SizeLimitedRequestWrapper(HttpServletRequest request, long maxSize) {
+        super(request);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new SizeLimitedServletInputStream(super.getInputStream(), maxSize);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(getInputStream(), encoding != null ? encoding : WebUtils.DEFAULT_CHARACTER_ENCODING));
+    }
+
+    static String message(long maxSize) {
+        return "The request body exceeds the maximum size of " + maxSize + " bytes";
+    }
+
+    private static class SizeLimitedServletInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private final long maxSize;
+        private long count;
+
+        SizeLimitedServletInputStream(ServletInputStream delegate, long maxSize) {
+            this.delegate = delegate;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = delegate.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            count += n;
+            if (count > maxSize) {
+                throw new PayloadTooLargeException(message(maxSize));
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package nl.kabisa.spring.boot.starter.service.bootstrap;
+
+import org.junit.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test to check that the default-bootstrap.properties are loaded once and shared, and that profile specific
+ * default-bootstrap-{profile}.properties override them.
+ */
+public class BootstrapEnvironmentPostProcessorTest {
+
+    private final BootstrapEnvironmentPostProcessor postProcessor = new BootstrapEnvironmentPostProcessor();
+
+    @Test
+    public void testDefaultBootstrapProperties() {
+        StandardEnvironment environment = postProcess();
+        assertEquals("false", environment.getProperty("service.starter.logging.enabled"));
+        assertEquals("classpath:platform-banner.txt", environment.getProperty("spring.banner.location"));
+    }
+
+    @Test
+    public void testPropertySourceShared() {
+        assertSame(postProcess().getPropertySources().get(BootstrapEnvironmentPostProcessor.NAME),
+                postProcess().getPropertySources().get(BootstrapEnvironmentPostProcessor.NAME));
+    }
+
+    @Test
+    public void testProfileOverlay() {
+        StandardEnvironment environment = postProcess("overlay");
+        assertEquals("true", environment.getProperty("service.starter.logging.enabled"));
+        assertEquals("classpath:platform-banner.txt", environment.getProperty("spring.banner.location"));
+    }
+
+    @Test
+    public void testApplicationPropertiesPrecedence() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("application", Map.of("service.starter.logging.enabled", "true")));
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+        assertEquals("true", environment.getProperty("service.starter.logging.enabled"));
+    }
+
+    private StandardEnvironment postProcess(String... profiles) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.setActiveProfiles(profiles);
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+        return environment;
+    }
+
+}
@@ -0,0 +1,22 @@
+package nl.kabisa.spring.boot.starter.service.bootstrap;
+
+import org.junit.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test to check that the classpath resources loaded during bootstrap are registered for AOT processing.
+ */
+public class BootstrapRuntimeHintsTest {
+
+    @Test
+    public void testResourceHints() {
+        RuntimeHints hints = new RuntimeHints();
+        new BootstrapRuntimeHints().registerHints(hints, getClass().getClassLoader());
+        assertTrue(RuntimeHintsPredicates.resource().forResource("default-bootstrap.properties").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("platform-banner.txt").test(hints));
+    }
+
+}
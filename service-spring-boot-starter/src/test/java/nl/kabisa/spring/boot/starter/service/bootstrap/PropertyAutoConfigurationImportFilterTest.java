@@ -0,0 +1,114 @@
+package nl.kabisa.spring.boot.starter.service.bootstrap;
+
+import org.junit.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test to check the {@link PropertyAutoConfigurationImportFilter} and the metadata it reads.
+ */
+public class PropertyAutoConfigurationImportFilterTest {
+
+    private static final String LOGGING = "nl.kabisa.spring.boot.starter.service.logging.LoggingAutoConfiguration";
+    private static final String SECURITY = "nl.kabisa.spring.boot.starter.service.config.AppSecurityConfig";
+    private static final String OTHER = "org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration";
+
+    @Test
+    public void testMetadataMatchesAnnotations() throws Exception {
+        AutoConfigurationMetadata metadata = metadata();
+        for (String className : autoConfigurations()) {
+            ConditionalOnProperty condition = AnnotationUtils.findAnnotation(Class.forName(className), ConditionalOnProperty.class);
+            if (condition != null) {
+                String name = condition.name().length > 0 ? condition.name()[0] : condition.value()[0];
+                assertEquals(className, condition.prefix() + "." + name, metadata.get(className, PropertyAutoConfigurationImportFilter.CONDITIONAL_ON_PROPERTY));
+                assertEquals(className, String.valueOf(condition.matchIfMissing()), metadata.get(className, PropertyAutoConfigurationImportFilter.MATCH_IF_MISSING));
+                assertEquals(className, "true", condition.havingValue());
+            }
+        }
+    }
+
+    @Test
+    public void testDefaults() throws IOException {
+        boolean[] matches = filter(new MockEnvironment()).match(new String[]{LOGGING, SECURITY, OTHER, null}, metadata());
+        assertArrayEquals(new boolean[]{false, true, true, true}, matches);
+    }
+
+    @Test
+    public void testProperties() throws IOException {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("service.starter.logging.enabled", "TRUE")
+                .withProperty("service.starter.security.enabled", "false");
+        boolean[] matches = filter(environment).match(new String[]{LOGGING, SECURITY, OTHER}, metadata());
+        assertArrayEquals(new boolean[]{true, false, true}, matches);
+    }
+
+    private PropertyAutoConfigurationImportFilter filter(MockEnvironment environment) {
+        PropertyAutoConfigurationImportFilter filter = new PropertyAutoConfigurationImportFilter();
+        filter.setEnvironment(environment);
+        return filter;
+    }
+
+    private List<String> autoConfigurations() throws IOException {
+        String imports = StreamUtils.copyToString(new ClassPathResource(
+                "META-INF/spring/org.springframework.boot.autoconfigure.AutoConfiguration.imports").getInputStream(), StandardCharsets.UTF_8);
+        return Arrays.stream(imports.split("\\R")).map(String::trim).filter(s -> !s.isEmpty() && !s.startsWith("#")).toList();
+    }
+
+    private AutoConfigurationMetadata metadata() throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("META-INF/spring-autoconfigure-metadata.properties"));
+        return new AutoConfigurationMetadata() {
+            @Override
+            public boolean wasProcessed(String className) {
+                return properties.containsKey(className);
+            }
+
+            @Override
+            public Integer getInteger(String className, String key) {
+                return getInteger(className, key, null);
+            }
+
+            @Override
+            public Integer getInteger(String className, String key, Integer defaultValue) {
+                String value = get(className, key);
+                return value != null ? Integer.valueOf(value) : defaultValue;
+            }
+
+            @Override
+            public Set<String> getSet(String className, String key) {
+                return getSet(className, key, null);
+            }
+
+            @Override
+            public Set<String> getSet(String className, String key, Set<String> defaultValue) {
+                String value = get(className, key);
+                return value != null ? Set.of(value.split(",")) : defaultValue;
+            }
+
+            @Override
+            public String get(String className, String key) {
+                return get(className, key, null);
+            }
+
+            @Override
+            public String get(String className, String key, String defaultValue) {
+                return properties.getProperty(className + "." + key, defaultValue);
+            }
+        };
+    }
+
+}
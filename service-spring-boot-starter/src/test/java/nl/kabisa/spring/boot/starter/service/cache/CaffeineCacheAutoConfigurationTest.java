@@ -0,0 +1,175 @@
+package nl.kabisa.spring.boot.starter.service.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.cache.CacheMetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test to check the {@link CaffeineCacheAutoConfiguration} creates bounded caches with their own spec and statistics.
+ */
+public class CaffeineCacheAutoConfigurationTest {
+
+    // the database starter and the JCache provider of the Hibernate second-level cache are on the test classpath
+    private final ApplicationContextRunner springBootRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(CaffeineCacheAutoConfiguration.class, CacheAutoConfiguration.class,
+                    MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class,
+                    CompositeMeterRegistryAutoConfiguration.class, CacheMetricsAutoConfiguration.class))
+            .withUserConfiguration(CachingConfiguration.class);
+
+    private final ApplicationContextRunner runner = springBootRunner
+            .withInitializer(context -> new CaffeineCacheEnvironmentPostProcessor().postProcessEnvironment(context.getEnvironment(), null));
+
+    @Test
+    public void testCacheSpecs() {
+        runner.withPropertyValues("service.starter.cache.caches.quotes.maximum-size=10",
+                "service.starter.cache.caches.quotes.expire-after-write=5m",
+                "service.starter.cache.caches.sessions.weak-keys=true").run(context -> {
+            CaffeineCacheManager cacheManager = context.getBean(CaffeineCacheManager.class);
+
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> quotes = nativeCache(cacheManager, "quotes");
+            assertEquals(10, quotes.policy().eviction().orElseThrow().getMaximum());
+            assertEquals(Duration.ofMinutes(5), quotes.policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+            assertTrue(quotes.policy().isRecordingStats());
+
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> sessions = nativeCache(cacheManager, "sessions");
+            assertEquals(1000, sessions.policy().eviction().orElseThrow().getMaximum());
+            sessions.put(new String("key"), "value");
+            assertNull(sessions.getIfPresent("key"));
+
+            // a dynamic cache is created with the defaults
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> other = nativeCache(cacheManager, "other");
+            assertEquals(1000, other.policy().eviction().orElseThrow().getMaximum());
+            assertFalse(other.policy().expireAfterWrite().isPresent());
+        });
+    }
+
+    @Test
+    public void testStaticCaches() {
+        runner.withPropertyValues("service.starter.cache.dynamic=false", "service.starter.cache.caches.quotes.maximum-size=10")
+                .run(context -> {
+                    CacheManager cacheManager = context.getBean(CacheManager.class);
+                    assertTrue(cacheManager.getCache("quotes") != null);
+                    assertNull(cacheManager.getCache("other"));
+                });
+    }
+
+    @Test
+    public void testRefreshAfterWriteRequiresCacheLoader() {
+        runner.withPropertyValues("service.starter.cache.caches.quotes.refresh-after-write=1m")
+                .run(context -> assertTrue(NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure()) instanceof IllegalStateException));
+
+        runner.withPropertyValues("service.starter.cache.caches.quotes.refresh-after-write=1m")
+                .withBean(CacheLoader.class, () -> (CacheLoader<Object, Object>) key -> "loaded " + key)
+                .run(context -> {
+                    CacheManager cacheManager = context.getBean(CacheManager.class);
+                    assertEquals("loaded 1", cacheManager.getCache("quotes").get(1).get());
+                    assertTrue(nativeCache((CaffeineCacheManager) cacheManager, "quotes").policy().refreshAfterWrite().isPresent());
+                });
+    }
+
+    @Test
+    public void testStatistics() {
+        runner.withPropertyValues("service.starter.cache.caches.quotes.maximum-size=10").run(context -> {
+            CacheManager cacheManager = context.getBean(CacheManager.class);
+            cacheManager.getCache("quotes").put(1, "quote");
+            cacheManager.getCache("quotes").get(1);
+            cacheManager.getCache("quotes").get(1);
+            cacheManager.getCache("quotes").get(2);
+
+            CacheStatisticsEndpoint.CacheStatistics statistics = context.getBean(CacheStatisticsEndpoint.class).cache("quotes");
+            assertEquals(2, statistics.hits());
+            assertEquals(1, statistics.misses());
+            assertEquals(2.0 / 3, statistics.hitRatio(), 0.001);
+            assertSame(null, context.getBean(CacheStatisticsEndpoint.class).cache("unknown"));
+
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            assertEquals(2, registry.get("cache.gets").tags("cache", "quotes", "result", "hit").functionCounter().count(), 0);
+        });
+    }
+
+    @Test
+    public void testApplicationCacheManagerTakesPrecedence() {
+        runner.withBean(CacheManager.class, ConcurrentMapCacheManager::new).run(context -> {
+            assertTrue(context.getBean(CacheManager.class) instanceof ConcurrentMapCacheManager);
+            assertTrue(context.getBean(CacheStatisticsEndpoint.class).cachestats().values().iterator().next().isEmpty());
+        });
+    }
+
+    @Test
+    public void testSpringCachePropertiesTakePrecedence() {
+        runner.withPropertyValues("spring.cache.caffeine.spec=maximumSize=5", "spring.cache.cache-names=authors",
+                "service.starter.cache.dynamic=false", "service.starter.cache.caches.quotes.maximum-size=10").run(context -> {
+            CaffeineCacheManager cacheManager = context.getBean(CaffeineCacheManager.class);
+            assertEquals(5, nativeCache(cacheManager, "authors").policy().eviction().orElseThrow().getMaximum());
+            assertEquals(10, nativeCache(cacheManager, "quotes").policy().eviction().orElseThrow().getMaximum());
+            assertNull(cacheManager.getCache("other"));
+        });
+
+        runner.withPropertyValues("spring.cache.type=none")
+                .run(context -> assertTrue(context.getBean(CacheManager.class) instanceof NoOpCacheManager));
+    }
+
+    @Test
+    public void testJCacheProviderOnClasspath() {
+        // without the default cache type Spring Boot picks the JCache provider
+        springBootRunner.withPropertyValues("service.starter.cache.caches.quotes.maximum-size=10")
+                .run(context -> assertTrue(context.getBean(CacheManager.class) instanceof JCacheCacheManager));
+
+        runner.withPropertyValues("service.starter.cache.caches.quotes.maximum-size=10").run(context -> {
+                    CaffeineCacheManager cacheManager = context.getBean(CaffeineCacheManager.class);
+                    assertEquals(10, nativeCache(cacheManager, "quotes").policy().eviction().orElseThrow().getMaximum());
+                });
+
+        runner.withPropertyValues("service.starter.cache.enabled=false")
+                .run(context -> assertTrue(context.getBean(CacheManager.class) instanceof JCacheCacheManager));
+
+        runner.withPropertyValues("spring.cache.type=simple")
+                .run(context -> assertTrue(context.getBean(CacheManager.class) instanceof ConcurrentMapCacheManager));
+    }
+
+    @Test
+    public void testCachingNotEnabled() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CaffeineCacheAutoConfiguration.class, CacheAutoConfiguration.class))
+                .run(context -> assertFalse(context.containsBean("cacheManager")));
+    }
+
+    @Test
+    public void testDisabled() {
+        runner.withPropertyValues("service.starter.cache.enabled=false")
+                .run(context -> assertFalse(context.containsBean("cacheStatisticsEndpoint")));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableCaching
+    static class CachingConfiguration {
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(CaffeineCacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -0,0 +1,149 @@
+package nl.kabisa.spring.boot.starter.service.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.MimeType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test to check the {@link CompressionFilter} compresses large JSON responses only.
+ */
+public class CompressionFilterTest {
+
+    private static final String JSON = "{\"text\":\"To quote or not to quote\",\"author\":\"mark\"}";
+    private static final String LARGE_JSON = "[" + String.join(",", Collections.nCopies(100, JSON)) + "]";
+
+    private final CompressionFilter filter = new CompressionFilter(List.of(new GzipResponseEncoder(CompressionLevel.BALANCED.getGzip())),
+            List.of(MimeType.valueOf("application/json"), MimeType.valueOf("application/*+json")),
+            List.of(MimeType.valueOf("image/*")), 1024);
+
+    @Test
+    public void testAcceptEncoding() {
+        assertEquals("gzip", filter.encoder("gzip, deflate, br").getEncoding());
+        assertEquals("gzip", filter.encoder("br;q=1.0, *;q=0.5").getEncoding());
+        assertNull(filter.encoder("gzip;q=0, br"));
+        assertNull(filter.encoder("identity"));
+        assertNull(filter.encoder(null));
+    }
+
+    @Test
+    public void testContentTypes() {
+        assertEquals(true, filter.isCompressible("application/json;charset=UTF-8"));
+        assertEquals(true, filter.isCompressible("application/problem+json"));
+        assertEquals(false, filter.isCompressible("image/png"));
+        assertEquals(false, filter.isCompressible("text/csv"));
+        assertEquals(false, filter.isCompressible(null));
+    }
+
+    @Test
+    public void testLargeResponseCompressed() throws Exception {
+        MockHttpServletResponse response = filter(write("application/json", LARGE_JSON));
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertNull(response.getHeader("Content-Length"));
+        assertEquals(LARGE_JSON, gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void testSmallResponseNotCompressed() throws Exception {
+        MockHttpServletResponse response = filter(write("application/json", JSON));
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(JSON, response.getContentAsString());
+    }
+
+    @Test
+    public void testCompressedTypeNotCompressed() throws Exception {
+        MockHttpServletResponse response = filter(write("image/png", LARGE_JSON));
+        assertNull(response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Vary"));
+        assertEquals(LARGE_JSON, response.getContentAsString());
+    }
+
+    @Test
+    public void testLoggedPayloadUncompressed() throws Exception {
+        AtomicReference<byte[]> logged = new AtomicReference<>();
+        // the request logging captures the body and copies it to the response when the request completes
+        FilterChain logging = (request, response) -> {
+            ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper((HttpServletResponse) response);
+            write("application/json", LARGE_JSON).doFilter(request, capture);
+            logged.set(capture.getContentAsByteArray());
+            capture.copyBodyToResponse();
+        };
+
+        MockHttpServletResponse response = filter(logging);
+
+        assertArrayEquals(LARGE_JSON.getBytes(StandardCharsets.UTF_8), logged.get());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(LARGE_JSON, gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void testFlushAfterSendError() throws Exception {
+        MockHttpServletResponse response = filter((request, servletResponse) -> {
+            HttpServletResponse httpResponse = (HttpServletResponse) servletResponse;
+            httpResponse.setContentType("application/json");
+            httpResponse.getOutputStream().write(JSON.getBytes(StandardCharsets.UTF_8));
+            httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            httpResponse.flushBuffer();
+        });
+
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(0, response.getContentLength());
+    }
+
+    @Test
+    public void testNotModifiedAfterCompressionStarted() throws Exception {
+        MockHttpServletResponse response = filter((request, servletResponse) -> {
+            HttpServletResponse httpResponse = (HttpServletResponse) servletResponse;
+            httpResponse.setContentType("application/json");
+            httpResponse.setHeader("ETag", "W/\"42\"");
+            httpResponse.getOutputStream().write(LARGE_JSON.getBytes(StandardCharsets.UTF_8));
+            httpResponse.resetBuffer();
+            httpResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        });
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("W/\"42\"", response.getHeader("ETag"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private MockHttpServletResponse filter(FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/quotes");
+        request.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static FilterChain write(String contentType, String body) {
+        return (request, response) -> {
+            response.setContentType(contentType);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write(body);
+        };
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+    }
+}
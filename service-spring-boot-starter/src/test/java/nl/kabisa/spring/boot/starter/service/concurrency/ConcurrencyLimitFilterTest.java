@@ -0,0 +1,103 @@
+package nl.kabisa.spring.boot.starter.service.concurrency;
+
+import jakarta.servlet.FilterChain;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test to check the {@link AdaptiveConcurrencyLimiter} and the {@link ConcurrencyLimitFilter}.
+ */
+public class ConcurrencyLimitFilterTest {
+
+    private static final Map<String, RoutePriority> PRIORITIES = Map.of(
+            "/actuator/health/**", RoutePriority.CRITICAL,
+            "/api/reports/**", RoutePriority.LOW,
+            "/api/reports/daily", RoutePriority.NORMAL);
+
+    @Test
+    public void testLimitAdaptsToLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 0.5, 2.0, 0.5);
+        for (int i = 0; i < 5; i++) {
+            limiter.sample(TimeUnit.MILLISECONDS.toNanos(10), 10);
+        }
+        assertEquals(14, limiter.getLimit());
+
+        for (int i = 0; i < 50 && limiter.getLimit() >= 14; i++) {
+            limiter.sample(TimeUnit.MILLISECONDS.toNanos(100), 14);
+        }
+        assertEquals(7, limiter.getLimit());
+
+        double latency = TimeUnit.MILLISECONDS.toNanos(100);
+        for (int i = 0; i < 200; i++) {
+            latency *= 1.1;
+            limiter.sample((long) latency, limiter.getLimit());
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitOnlyGrowsWhenUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 0.5, 2.0, 0.5);
+        for (int i = 0; i < 10; i++) {
+            limiter.sample(TimeUnit.MILLISECONDS.toNanos(10), 1);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void testPriorities() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 4, 0.9, 2.0, 0.5);
+        assertTrue(limiter.tryAcquire(RoutePriority.LOW));
+        assertTrue(limiter.tryAcquire(RoutePriority.LOW));
+        assertFalse(limiter.tryAcquire(RoutePriority.LOW));
+        assertTrue(limiter.tryAcquire(RoutePriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RoutePriority.NORMAL));
+        assertFalse(limiter.tryAcquire(RoutePriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RoutePriority.CRITICAL));
+        assertEquals(5, limiter.getInFlight());
+        assertEquals(2, limiter.getRejected());
+    }
+
+    @Test
+    public void testRoutePriority() {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new AdaptiveConcurrencyLimiter(4, 1, 4, 0.9, 2.0, 0.5),
+                PRIORITIES, RoutePriority.NORMAL, Duration.ofSeconds(1));
+        assertEquals(RoutePriority.CRITICAL, filter.priority("/actuator/health"));
+        assertEquals(RoutePriority.CRITICAL, filter.priority("/actuator/health/liveness"));
+        assertEquals(RoutePriority.LOW, filter.priority("/api/reports/monthly"));
+        assertEquals(RoutePriority.NORMAL, filter.priority("/api/reports/daily"));
+        assertEquals(RoutePriority.NORMAL, filter.priority("/api/quotes"));
+    }
+
+    @Test
+    public void testRejectedWithRetryAfter() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.9, 2.0, 0.5);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, PRIORITIES, RoutePriority.NORMAL, Duration.ofSeconds(2));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockHttpServletResponse health = new MockHttpServletResponse();
+
+        FilterChain busy = (request, response) -> {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/quotes"), rejected, new MockFilterChain());
+            filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, new MockFilterChain());
+        };
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/quotes"), new MockHttpServletResponse(), busy);
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertEquals(ConcurrencyLimitFilter.MSG_OVERLOADED, rejected.getErrorMessage());
+        assertEquals(200, health.getStatus());
+        assertNull(health.getHeader("Retry-After"));
+        assertEquals(0, limiter.getInFlight());
+    }
+}
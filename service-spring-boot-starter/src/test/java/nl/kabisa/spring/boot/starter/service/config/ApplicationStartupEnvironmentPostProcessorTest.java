@@ -0,0 +1,43 @@
+package nl.kabisa.spring.boot.starter.service.config;
+
+import org.junit.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test to check that the {@link ApplicationStartupEnvironmentPostProcessor} installs a {@link BufferingApplicationStartup}.
+ */
+public class ApplicationStartupEnvironmentPostProcessorTest {
+
+    private final ApplicationStartupEnvironmentPostProcessor postProcessor = new ApplicationStartupEnvironmentPostProcessor();
+
+    @Test
+    public void testBufferingApplicationStartup() {
+        SpringApplication application = new SpringApplication();
+        postProcessor.postProcessEnvironment(new MockEnvironment(), application);
+        assertTrue(application.getApplicationStartup() instanceof BufferingApplicationStartup);
+    }
+
+    @Test
+    public void testDisabled() {
+        SpringApplication application = new SpringApplication();
+        postProcessor.postProcessEnvironment(new MockEnvironment()
+                .withProperty("service.starter.application.startup.enabled", "false"), application);
+        assertSame(ApplicationStartup.DEFAULT, application.getApplicationStartup());
+    }
+
+    @Test
+    public void testApplicationStartupNotReplaced() {
+        SpringApplication application = new SpringApplication();
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+        application.setApplicationStartup(applicationStartup);
+        postProcessor.postProcessEnvironment(new MockEnvironment(), application);
+        assertSame(applicationStartup, application.getApplicationStartup());
+    }
+
+}
@@ -0,0 +1,133 @@
+package nl.kabisa.spring.boot.starter.service.etag;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import nl.kabisa.spring.boot.starter.service.compression.CompressionFilter;
+import nl.kabisa.spring.boot.starter.service.compression.GzipResponseEncoder;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.MimeType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test to check the {@link ETagFilter} and the {@link VersionETag}.
+ */
+public class ETagFilterTest {
+
+    private static final String JSON = "{\"text\":\"To quote or not to quote\",\"author\":\"mark\"}";
+
+    private final ETagFilter filter = new ETagFilter(1024, List.of("/actuator/**"));
+
+    @Test
+    public void testETagOfBody() throws Exception {
+        MockHttpServletResponse first = filter(null, write(JSON));
+        String etag = first.getHeader("ETag");
+        assertTrue(etag, etag.startsWith("W/\""));
+        assertEquals(JSON, first.getContentAsString());
+        // the body is held by the filter, the buffer of the response is left as is
+        assertEquals(16, first.getBufferSize());
+
+        MockHttpServletResponse changed = filter(null, write(JSON.replace("mark", "anna")));
+        assertFalse(etag.equals(changed.getHeader("ETag")));
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        String etag = filter(null, write(JSON)).getHeader("ETag");
+
+        MockHttpServletResponse response = filter(etag, write(JSON));
+
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getHeader("ETag"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testNotModifiedNotCompressed() throws Exception {
+        CompressionFilter compression = new CompressionFilter(List.of(new GzipResponseEncoder(6)),
+                List.of(MimeType.valueOf("application/json")), List.of(), 256);
+        FilterChain chain = (request, response) -> filter.doFilter(request, response, write(JSON.repeat(10)));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/quotes");
+        request.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        compression.doFilter(request, first, chain);
+        assertEquals("gzip", first.getHeader("Content-Encoding"));
+
+        request.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        compression.doFilter(request, response, chain);
+
+        assertEquals(304, response.getStatus());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testCommittedResponseWithoutETag() throws Exception {
+        MockHttpServletResponse response = filter(null, write(JSON.repeat(30)));
+        assertNull(response.getHeader("ETag"));
+        assertEquals(JSON.repeat(30), response.getContentAsString());
+    }
+
+    @Test
+    public void testVersionETagBeforeHandler() throws Exception {
+        AtomicBoolean loaded = new AtomicBoolean();
+        FilterChain controller = (request, response) -> {
+            if (VersionETag.checkNotModified(new ServletWebRequest((HttpServletRequest) request, (HttpServletResponse) response), 42, 3)) {
+                return;
+            }
+            loaded.set(true);
+            write(JSON).doFilter(request, response);
+        };
+
+        MockHttpServletResponse response = filter("W/\"42-3\"", controller);
+
+        assertFalse(loaded.get());
+        assertEquals(304, response.getStatus());
+        assertEquals("W/\"42-3\"", response.getHeader("ETag"));
+
+        response = filter("W/\"42-2\"", controller);
+        assertTrue(loaded.get());
+        assertEquals(200, response.getStatus());
+        assertEquals("W/\"42-3\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    public void testWeakComparison() {
+        assertTrue(ETagFilter.matches("\"abc\"", "W/\"abc\""));
+        assertTrue(ETagFilter.matches("W/\"xyz\", W/\"abc\"", "W/\"abc\""));
+        assertTrue(ETagFilter.matches("*", "W/\"abc\""));
+        assertFalse(ETagFilter.matches("W/\"xyz\"", "W/\"abc\""));
+        assertFalse(ETagFilter.matches(null, "W/\"abc\""));
+    }
+
+    private MockHttpServletResponse filter(String ifNoneMatch, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/quotes/42");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setBufferSize(16);
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static FilterChain write(String body) {
+        return (request, response) -> {
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write(body);
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package nl.kabisa.spring.boot.starter.service.http2;
+
+import nl.kabisa.spring.boot.starter.service.problem.Problem;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.http2.Http2Protocol;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.error.ErrorMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportSelector;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test to check the {@link Http2AutoConfiguration} serves h2c, with requests multiplexed on one connection and
+ * Problem responses over HTTP/2.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "service.starter.http2.enabled=true", "service.starter.http2.max-concurrent-streams=50"})
+public class Http2AutoConfigurationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+    @Test
+    public void testMultiplexedRequests() throws Exception {
+        // the first request upgrades the connection to h2c, the others are streams on it
+        HttpResponse<String> first = client.send(request("/quotes"), HttpResponse.BodyHandlers.ofString());
+        assertEquals(HttpClient.Version.HTTP_2, first.version());
+
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, 20)
+                .mapToObj(i -> client.sendAsync(request("/quotes"), HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(HttpClient.Version.HTTP_2, response.get().version());
+            assertEquals(200, response.get().statusCode());
+            assertEquals("[\"quote\"]", response.get().body());
+        }
+    }
+
+    @Test
+    public void testProblemOverHttp2() throws Exception {
+        client.send(request("/quotes"), HttpResponse.BodyHandlers.discarding());
+
+        HttpResponse<String> response = client.send(request("/unknown"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(HttpClient.Version.HTTP_2, response.version());
+        assertEquals(404, response.statusCode());
+        assertEquals(Problem.PROBLEM_JSON, response.headers().firstValue("Content-Type").orElseThrow());
+        assertTrue(response.body().contains("\"instance\":\"/unknown\""));
+    }
+
+    @Test
+    public void testStreamSettings() {
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+        Http2Protocol protocol = (Http2Protocol) connector.findUpgradeProtocols()[0];
+
+        assertEquals(50, protocol.getMaxConcurrentStreams());
+        assertEquals(256 * 1024, protocol.getInitialWindowSize());
+    }
+
+    @Test
+    public void testCleartextDisabled() {
+        Http2AutoConfiguration configuration = new Http2AutoConfiguration();
+        configuration.setCleartext(false);
+        Connector connector = new Connector();
+
+        configuration.customize(connector);
+        assertEquals(0, connector.findUpgradeProtocols().length);
+
+        // a protocol added with server.http2.enabled gets the stream settings
+        connector.addUpgradeProtocol(new Http2Protocol());
+        configuration.customize(connector);
+        assertEquals(100, ((Http2Protocol) connector.findUpgradeProtocols()[0]).getMaxConcurrentStreams());
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class,
+            ErrorMvcAutoConfiguration.class, Http2AutoConfiguration.class})
+    @Import({ProblemImportSelector.class, QuoteController.class})
+    static class TestConfiguration {
+    }
+
+    /**
+     * Imports the package-private ProblemAutoConfiguration before the ErrorMvcAutoConfiguration.
+     */
+    static class ProblemImportSelector implements ImportSelector {
+
+        @Override
+        public String[] selectImports(AnnotationMetadata metadata) {
+            return new String[]{Problem.class.getPackageName() + ".ProblemAutoConfiguration"};
+        }
+    }
+
+    @RestController
+    static class QuoteController {
+
+        @GetMapping("/quotes")
+        List<String> quotes() {
+            return List.of("quote");
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package nl.kabisa.spring.boot.starter.service.httpcache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test to check the {@link HttpCacheFilter} applies the policies and serves responses from the {@link HttpResponseCache}.
+ */
+public class HttpCacheFilterTest {
+
+    private static final String JSON = "{\"text\":\"To quote or not to quote\",\"author\":\"mark\"}";
+
+    private final HttpResponseCache cache = new HttpResponseCache(10, 4096);
+    private final HttpCacheFilter filter = new HttpCacheFilter(Map.of(
+            "/api/quotes/**", new HttpCachePolicy("max-age=60, public", List.of("Accept-Language"), true, Duration.ofMinutes(1)),
+            "/api/authors/**", new HttpCachePolicy("max-age=10", List.of(), false, Duration.ZERO),
+            "/api/random/**", new HttpCachePolicy(null, List.of(), true, Duration.ZERO)),
+            cache, 1024);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void testPolicyHeaders() throws Exception {
+        MockHttpServletResponse response = get("/api/authors/1", null, status(200));
+        assertEquals("max-age=10", response.getHeader("Cache-Control"));
+        assertNull(response.getHeader("Vary"));
+
+        response = get("/api/authors/2", null, status(404));
+        assertEquals("no-store", response.getHeader("Cache-Control"));
+
+        response = get("/api/other", null, status(200));
+        assertNull(response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    public void testServedFromCache() throws Exception {
+        MockHttpServletResponse first = get("/api/quotes/1", "nl", status(200));
+        MockHttpServletResponse second = get("/api/quotes/1", "nl", status(200));
+
+        assertEquals(1, calls.get());
+        assertEquals(JSON, second.getContentAsString());
+        assertEquals("application/json", second.getContentType());
+        assertEquals("max-age=60, public", second.getHeader("Cache-Control"));
+        assertEquals("Accept-Language", second.getHeader("Vary"));
+        assertNotNull(second.getHeader("Age"));
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals(1, cache.getHits());
+
+        // another value of a Vary header, another user or another query is another response
+        get("/api/quotes/1", "en", status(200));
+        MockHttpServletRequest request = request("GET", "/api/quotes/1", "nl");
+        request.setUserPrincipal(() -> "mark");
+        filter.doFilter(request, new MockHttpServletResponse(), status(200));
+        request = request("GET", "/api/quotes/1", "nl");
+        request.setQueryString("page=2");
+        filter.doFilter(request, new MockHttpServletResponse(), status(200));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testResponseVaryNotInKeyNotCached() throws Exception {
+        FilterChain cors = (request, response) -> {
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.addHeader("Vary", "Origin");
+            httpResponse.setHeader("Access-Control-Allow-Origin", "https://quotes.example");
+            status(200).doFilter(request, response);
+        };
+        get("/api/quotes/1", "nl", cors);
+        get("/api/quotes/1", "nl", cors);
+
+        // the Vary of the policy is in the key
+        FilterChain language = (request, response) -> {
+            ((HttpServletResponse) response).addHeader("Vary", "accept-language");
+            status(200).doFilter(request, response);
+        };
+        get("/api/quotes/2", "nl", language);
+        get("/api/quotes/2", "nl", language);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testOuterHeadersNotCached() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        first.addHeader("X-Request-Id", "1");
+        filter.doFilter(request("GET", "/api/quotes/1", "nl"), first, status(200));
+
+        // the outer filter writes its header again
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        second.addHeader("X-Request-Id", "2");
+        filter.doFilter(request("GET", "/api/quotes/1", "nl"), second, status(200));
+
+        assertEquals(1, calls.get());
+        assertEquals(List.of("2"), second.getHeaders("X-Request-Id"));
+        assertEquals("max-age=60, public", second.getHeader("Cache-Control"));
+    }
+
+    @Test
+    public void testBoundedBySize() {
+        HttpResponseCache bounded = new HttpResponseCache(10, 2 * JSON.length());
+        for (int i = 0; i < 3; i++) {
+            bounded.put("GET /api/quotes/" + i, new HttpResponseCache.CachedResponse("/api/quotes/" + i, 200, "application/json",
+                    Map.of(), JSON.getBytes(), 0, Long.MAX_VALUE));
+        }
+        assertEquals(2, bounded.size());
+        assertEquals(2L * JSON.length(), bounded.getBytes());
+        assertNull(bounded.get("GET /api/quotes/0", 0));
+
+        bounded.invalidateAll();
+        assertEquals(0, bounded.getBytes());
+    }
+
+    @Test
+    public void testErrorsAndExpiredResponsesNotServed() throws Exception {
+        get("/api/quotes/2", null, status(500));
+        get("/api/quotes/2", null, status(500));
+        get("/api/random/1", null, status(200));
+        get("/api/random/1", null, status(200));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        get("/api/quotes/1", null, status(200));
+        filter.doFilter(request("PUT", "/api/quotes/1", null), new MockHttpServletResponse(), status(204));
+        get("/api/quotes/1", null, status(200));
+        assertEquals(3, calls.get());
+
+        cache.onInvalidation(new HttpCacheInvalidationEvent(this, "/api/quotes/**"));
+        get("/api/quotes/1", null, status(200));
+        assertEquals(4, calls.get());
+        assertEquals(1, cache.size());
+    }
+
+    private MockHttpServletResponse get(String uri, String language, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", uri, language), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String language) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (language != null) {
+            request.addHeader("Accept-Language", language);
+        }
+        return request;
+    }
+
+    private FilterChain status(int status) {
+        return (request, response) -> {
+            calls.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(status);
+            if (status != 204) {
+                httpResponse.setContentType("application/json");
+                httpResponse.getOutputStream().write(JSON.getBytes());
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package nl.kabisa.spring.boot.starter.service.problem;
+
+import nl.kabisa.spring.boot.starter.service.exception.PayloadTooLargeException;
+import org.junit.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test to check that the {@link ProblemConflictExceptionHandler} maps optimistic locking failures to a conflict and
+ * that the {@link ProblemEntityExceptionHandler} maps too large payloads to a 413.
+ */
+public class ProblemEntityExceptionHandlerTest {
+
+    private final ProblemEntityExceptionHandler handler = new ProblemEntityExceptionHandler();
+
+    @Test
+    public void testOptimisticLockingFailure() throws Exception {
+        // the catch-all handler of the ProblemEntityExceptionHandler must not take the conflict
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ConflictController())
+                .setControllerAdvice(handler, new ProblemConflictExceptionHandler())
+                .build();
+
+        mockMvc.perform(put("/quotes/1"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.detail").value(ProblemConflictExceptionHandler.MSG_CONFLICT))
+                .andExpect(jsonPath("$.instance").value("/quotes/1"));
+    }
+
+    @Test
+    public void testPayloadTooLarge() {
+        ResponseEntity<Problem> response = handler.handlePayloadTooLargeException(
+                new PayloadTooLargeException("The request body exceeds the maximum size of 10 bytes"), new MockHttpServletRequest("POST", "/quotes"));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+        assertEquals("The request body exceeds the maximum size of 10 bytes", response.getBody().getDetail());
+    }
+
+    @Test
+    public void testUncaughtException() {
+        ResponseEntity<Problem> response = handler.handleRuntimeException(new IllegalStateException(), new MockHttpServletRequest("GET", "/quotes"));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+
+        response = handler.handleRuntimeException(new OptimisticLockingFailureException("Row was updated by another transaction"), new MockHttpServletRequest("PUT", "/quotes/1"));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @RestController
+    static class ConflictController {
+
+        @PutMapping("/quotes/{id}")
+        void update() {
+            throw new OptimisticLockingFailureException("Row was updated by another transaction");
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package nl.kabisa.spring.boot.starter.service.problem;
+
+import org.junit.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test to check that the Problem types are registered for Jackson binding in an AOT processed application.
+ */
+public class ProblemRuntimeHintsTest {
+
+    @Test
+    public void testBindingHints() {
+        RuntimeHints hints = new RuntimeHints();
+        new ProblemRuntimeHints().registerHints(hints, getClass().getClassLoader());
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Problem.class, "getViolations").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ConstraintViolation.class, "getMessage").test(hints));
+    }
+
+}
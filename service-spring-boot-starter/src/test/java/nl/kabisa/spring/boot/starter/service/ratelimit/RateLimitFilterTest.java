@@ -0,0 +1,119 @@
+package nl.kabisa.spring.boot.starter.service.ratelimit;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test to check the {@link TokenBucket}, the {@link RateLimiter} and the {@link RateLimitFilter}.
+ */
+public class RateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testTokenBucket() {
+        TokenBucket bucket = new TokenBucket(SECOND / 10, 3, 0);
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(SECOND / 10, bucket.tryConsume(0));
+        assertEquals(SECOND / 20, bucket.tryConsume(SECOND / 20));
+        assertEquals(0, bucket.tryConsume(SECOND / 10));
+        assertEquals(2, bucket.getRejected());
+
+        // an idle bucket refills up to the burst
+        assertEquals(0, bucket.tryConsume(10 * SECOND));
+        assertEquals(0, bucket.tryConsume(10 * SECOND));
+        assertEquals(0, bucket.tryConsume(10 * SECOND));
+        assertTrue(bucket.tryConsume(10 * SECOND) > 0);
+    }
+
+    @Test
+    public void testTopOffendersAndEviction() {
+        RateLimiter limiter = new RateLimiter(1, 1, 16);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("ip:10.0.0.1");
+            limiter.tryAcquire("ip:10.0.0.1");
+            limiter.tryAcquire("user:mark");
+        }
+        assertEquals(List.of(new RateLimiter.Offender("ip:10.0.0.1", 5), new RateLimiter.Offender("user:mark", 2)), limiter.topOffenders(10));
+        assertEquals(List.of(new RateLimiter.Offender("ip:10.0.0.1", 5)), limiter.topOffenders(1));
+        assertEquals(7, limiter.getRejected());
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("ip:10.1." + i / 256 + "." + i % 256);
+        }
+        assertTrue(limiter.getKeys() <= 16);
+    }
+
+    @Test
+    public void testKeyResolver() {
+        DefaultRateLimitKeyResolver resolver = new DefaultRateLimitKeyResolver("X-API-Key", "secret"::equals);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/quotes");
+        request.setRemoteAddr("10.0.0.1");
+        assertEquals("ip:10.0.0.1", resolver.resolve(request));
+
+        request.addHeader("X-API-Key", "secret");
+        String key = resolver.resolve(request);
+        assertTrue(key, key.startsWith("key:") && !key.contains("secret"));
+
+        // without a validator the header is not used
+        assertEquals("ip:10.0.0.1", new DefaultRateLimitKeyResolver("X-API-Key", null).resolve(request));
+        assertEquals("ip:10.0.0.1", new DefaultRateLimitKeyResolver().resolve(request));
+
+        request.setUserPrincipal(() -> "mark");
+        assertEquals("user:mark", resolver.resolve(request));
+    }
+
+    @Test
+    public void testRejectedWithRetryAfter() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(0.1, 1, 100),
+                new DefaultRateLimitKeyResolver(), List.of("/actuator/health/**"));
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/quotes"), first, new MockFilterChain());
+        assertEquals(200, first.getStatus());
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/quotes"), second, new MockFilterChain());
+        assertEquals(429, second.getStatus());
+        assertEquals("10", second.getHeader("Retry-After"));
+        assertEquals(RateLimitFilter.MSG_TOO_MANY_REQUESTS, second.getErrorMessage());
+
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, new MockFilterChain());
+        assertEquals(200, health.getStatus());
+        assertNull(health.getHeader("Retry-After"));
+    }
+
+    @Test
+    public void testRotatingApiKeysThrottled() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new RateLimiter(0.1, 1, 100),
+                new DefaultRateLimitKeyResolver("X-API-Key", "secret"::equals), List.of());
+
+        // a new random key on every request does not get a new bucket
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/quotes");
+            request.addHeader("X-API-Key", "random-" + i);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(i == 0 ? 200 : 429, response.getStatus());
+        }
+
+        // a valid key has its own bucket
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/quotes");
+        request.addHeader("X-API-Key", "secret");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+}
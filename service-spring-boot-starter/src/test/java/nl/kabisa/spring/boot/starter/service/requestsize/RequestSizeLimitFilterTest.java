@@ -0,0 +1,87 @@
+package nl.kabisa.spring.boot.starter.service.requestsize;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletInputStream;
+import nl.kabisa.spring.boot.starter.service.exception.PayloadTooLargeException;
+import org.junit.Test;
+import org.springframework.mock.web.DelegatingServletInputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test to check the {@link RequestSizeLimitFilter} rejects large bodies before they are buffered.
+ */
+public class RequestSizeLimitFilterTest {
+
+    private final RequestSizeLimitFilter filter = new RequestSizeLimitFilter(10,
+            Map.of("/api/documents/**", 100L, "/api/documents/stream", -1L));
+
+    @Test
+    public void testRouteMaxSize() {
+        assertEquals(10, filter.maxSize("/api/quotes"));
+        assertEquals(100, filter.maxSize("/api/documents/1"));
+        assertEquals(-1, filter.maxSize("/api/documents/stream"));
+    }
+
+    @Test
+    public void testContentLengthRejectedUpFront() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/quotes");
+        request.setContent(new byte[11]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean called = new AtomicBoolean();
+
+        filter.doFilter(request, response, (req, res) -> called.set(true));
+
+        assertFalse(called.get());
+        assertEquals(413, response.getStatus());
+        assertEquals(SizeLimitedRequestWrapper.message(10), response.getErrorMessage());
+    }
+
+    @Test
+    public void testChunkedBodyRejectedWhileReading() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        // the request logging reads the body in a filter
+        FilterChain logging = (req, res) -> StreamUtils.copyToByteArray(req.getInputStream());
+
+        filter.doFilter(chunked(11), response, logging);
+
+        assertEquals(413, response.getStatus());
+        assertEquals(SizeLimitedRequestWrapper.message(10), response.getErrorMessage());
+    }
+
+    @Test
+    public void testBodyWithinMaxSize() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean read = new AtomicBoolean();
+
+        filter.doFilter(chunked(10), response, (req, res) -> read.set(StreamUtils.copyToByteArray(req.getInputStream()).length == 10));
+
+        assertTrue(read.get());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test(expected = PayloadTooLargeException.class)
+    public void testReaderRejectedWhileReading() throws Exception {
+        new SizeLimitedRequestWrapper(chunked(11), 10).getReader().lines().count();
+    }
+
+    private static MockHttpServletRequest chunked(int size) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/quotes") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return new DelegatingServletInputStream(new ByteArrayInputStream(new byte[size]));
+            }
+        };
+        request.addHeader("Transfer-Encoding", "chunked");
+        return request;
+    }
+}